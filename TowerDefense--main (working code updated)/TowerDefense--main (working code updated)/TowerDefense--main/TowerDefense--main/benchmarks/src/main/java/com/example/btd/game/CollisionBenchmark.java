@@ -0,0 +1,57 @@
+package com.example.btd.game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The projectile-versus-enemy hit test of one tick: every projectile in flight
+ * asks the enemy grid for the first enemy it overlaps. Hits are only counted, so
+ * the state is the same for every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+    @Param({"100", "1000", "10000"})
+    int enemyCount;
+
+    @Param({"100", "1000", "10000"})
+    int projectileCount;
+
+    private ProjectilePool projectiles;
+    private EnemyGrid grid;
+
+    @Setup
+    public void setUp() {
+        GameSimulation simulation = Scenario.simulation(1, projectileCount);
+        Scenario.spreadEnemies(simulation, enemyCount);
+        Scenario.fireProjectiles(simulation, projectileCount, new Random(Scenario.SEED));
+        projectiles = simulation.getProjectiles();
+        grid = Scenario.grid(simulation);
+    }
+
+    @Benchmark
+    public int findHits() {
+        int hits = 0;
+        for (int index = 0; index < projectiles.getActiveCount(); index++) {
+            if (grid.findFirstHit(projectiles.getX(index), projectiles.getY(index), projectiles.getSize(index)) >= 0) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.btd.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One tick of enemy movement along the path (EnemyStore.updateAll). Enemies that
+ * reach the exit are replaced by a new spawn, as a long wave would do, so the
+ * number of moving enemies stays at enemyCount however long the benchmark runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathFollowingBenchmark {
+    @Param({"100", "1000", "10000", "20000"})
+    int enemyCount;
+
+    private GameSimulation simulation;
+    private EnemyStore enemies;
+
+    @Setup
+    public void setUp() {
+        simulation = Scenario.simulation(1, 0);
+        Scenario.spreadEnemies(simulation, enemyCount);
+        enemies = simulation.getEnemies();
+    }
+
+    @Benchmark
+    public EnemyStore updateAll() {
+        enemies.updateAll(GameSimulation.TICK_SECONDS);
+        for (int slot = 0; slot < enemies.size(); slot++) {
+            if (enemies.hasReachedEnd(slot)) {
+                enemies.remove(slot);
+                simulation.spawnEnemy();
+            }
+        }
+        return enemies;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.btd.game;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GameMap.canPlaceTower, which measures the distance from a point to every path
+ * segment, over a fixed set of random points on the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlacementBenchmark {
+    private static final int POINTS = 1024;
+
+    private GameMap map;
+    private final double[] xs = new double[POINTS];
+    private final double[] ys = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        map = new GameMap(Scenario.MAP_WIDTH, Scenario.MAP_HEIGHT);
+        Random random = new Random(Scenario.SEED);
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = random.nextDouble() * Scenario.MAP_WIDTH;
+            ys[i] = random.nextDouble() * Scenario.MAP_HEIGHT;
+        }
+    }
+
+    @Benchmark
+    public boolean canPlaceTower() {
+        int i = next;
+        next = (i + 1) & (POINTS - 1);
+        return map.canPlaceTower(xs[i], ys[i]);
+    }
+}
\ No newline at end of file
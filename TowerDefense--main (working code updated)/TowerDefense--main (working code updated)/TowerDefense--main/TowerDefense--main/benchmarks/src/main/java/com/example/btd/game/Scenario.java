@@ -0,0 +1,102 @@
+package com.example.btd.game;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds large game states from the real game classes, for the benchmarks.
+ *
+ * Everything is seeded, so the same parameters give the same state on every run.
+ * Enemies are spread evenly along the path, towers stand at random spots off the
+ * path, and projectiles are in flight at random points of the map.
+ */
+final class Scenario {
+    // Main gives the map 80% of the screen width; this is a 1920x1080 screen
+    static final double MAP_WIDTH = 1536;
+    static final double MAP_HEIGHT = 1080;
+    static final long SEED = 42;
+
+    private static final String[] TOWER_TYPES = {"basic", "sniper", "machine"};
+
+    private Scenario() {
+    }
+
+    /**
+     * A simulation at the start of the given wave whose projectile pool can hold
+     * at least projectileCapacity shots.
+     */
+    static GameSimulation simulation(int wave, int projectileCapacity) {
+        GameSimulation simulation = new GameSimulation(MAP_WIDTH, MAP_HEIGHT, new Random(SEED),
+            Math.max(projectileCapacity, ProjectilePool.DEFAULT_CAPACITY));
+        simulation.startWave(wave);
+        return simulation;
+    }
+
+    /**
+     * Spawns count enemies with the current wave's rules, moving the ones already
+     * out a little after each spawn so they end up spread along the whole path.
+     */
+    static void spreadEnemies(GameSimulation simulation, int count) {
+        EnemyStore enemies = simulation.getEnemies();
+        // Keep the first enemy just short of the exit
+        double step = 0.95 * pathLength(simulation.getPath()) / enemySpeed(simulation) / Math.max(1, count);
+        for (int i = 0; i < count; i++) {
+            simulation.spawnEnemy();
+            enemies.updateAll(step);
+        }
+    }
+
+    /**
+     * Adds count towers, cycling through the tower types, at random spots the map
+     * allows. Towers may overlap each other.
+     */
+    static void placeTowers(GameSimulation simulation, int count, Random random) {
+        GameMap map = simulation.getMap();
+        for (int i = 0; i < count; i++) {
+            double x;
+            double y;
+            do {
+                x = random.nextDouble() * MAP_WIDTH;
+                y = random.nextDouble() * MAP_HEIGHT;
+            } while (!map.canPlaceTower(x, y));
+            simulation.addTower(simulation.createTower(x, y, TOWER_TYPES[i % TOWER_TYPES.length]));
+        }
+    }
+
+    /**
+     * Fires count projectiles from random points of the map towards other random points.
+     */
+    static void fireProjectiles(GameSimulation simulation, int count, Random random) {
+        ProjectilePool projectiles = simulation.getProjectiles();
+        double size = Tower.sizeForMapHeight(MAP_HEIGHT) * 0.2;
+        for (int i = 0; i < count; i++) {
+            projectiles.fire(random.nextDouble() * MAP_WIDTH, random.nextDouble() * MAP_HEIGHT,
+                random.nextDouble() * MAP_WIDTH, random.nextDouble() * MAP_HEIGHT,
+                20, ProjectilePool.STYLE_BASIC, size);
+        }
+    }
+
+    /**
+     * A fresh grid holding the simulation's current enemies.
+     */
+    static EnemyGrid grid(GameSimulation simulation) {
+        EnemyGrid grid = new EnemyGrid(MAP_WIDTH, MAP_HEIGHT);
+        grid.rebuild(simulation.getEnemies());
+        return grid;
+    }
+
+    // Matches the speed spawnEnemy gives every enemy
+    private static double enemySpeed(GameSimulation simulation) {
+        return 100.0 * Math.min(simulation.getWidth(), simulation.getHeight()) / 1000.0;
+    }
+
+    private static double pathLength(List<PathPoint> path) {
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            double dx = path.get(i).x - path.get(i - 1).x;
+            double dy = path.get(i).y - path.get(i - 1).y;
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+        return length;
+    }
+}
\ No newline at end of file
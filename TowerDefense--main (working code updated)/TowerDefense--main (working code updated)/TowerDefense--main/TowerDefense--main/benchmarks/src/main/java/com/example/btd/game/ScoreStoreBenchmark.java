@@ -0,0 +1,92 @@
+package com.example.btd.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The two ScoreStore implementations side by side, each in a fresh temporary
+ * directory holding scoreCount scores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoreStoreBenchmark {
+    @Param({"sqlite", "log"})
+    String store;
+
+    @Param({"10000"})
+    int scoreCount;
+
+    private Path directory;
+    private ScoreStore scores;
+    private final Random random = new Random(Scenario.SEED);
+    private final List<LeaderboardEntry> single = new ArrayList<>(1);
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("btd-scores");
+        scores = store.equals("log")
+            ? new LogScoreStore(directory.resolve("leaderboard.log"))
+            : new SqliteScoreStore("jdbc:sqlite:" + directory.resolve("leaderboard.db"));
+        List<LeaderboardEntry> batch = new ArrayList<>();
+        for (int i = 0; i < scoreCount; i++) {
+            batch.add(new LeaderboardEntry("Player " + random.nextInt(100), random.nextInt(100_000), null));
+        }
+        scores.addScores(batch);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        scores.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public ScoreStore addScore() throws IOException {
+        single.clear();
+        single.add(new LeaderboardEntry("Player " + random.nextInt(100), random.nextInt(100_000), null));
+        scores.addScores(single);
+        return scores;
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> topScores() throws IOException {
+        return scores.getTopScores(10);
+    }
+
+    @Benchmark
+    public long rank() throws IOException {
+        return scores.countAbove(random.nextInt(100_000));
+    }
+
+    @Benchmark
+    public PlayerStats playerStats() throws IOException {
+        return scores.getPlayerStats("Player " + random.nextInt(100));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.btd.game;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GameSimulation.spawnEnemy at early, mid and boss waves, where more of the
+ * special-enemy rules apply. Each spawned enemy is removed again so the store
+ * keeps enemyCount enemies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpawnBenchmark {
+    @Param({"1", "50", "100"})
+    int wave;
+
+    @Param({"0", "10000"})
+    int enemyCount;
+
+    private GameSimulation simulation;
+    private EnemyStore enemies;
+
+    @Setup
+    public void setUp() {
+        simulation = Scenario.simulation(wave, 0);
+        Scenario.spreadEnemies(simulation, enemyCount);
+        enemies = simulation.getEnemies();
+    }
+
+    @Benchmark
+    public int spawnEnemy() {
+        simulation.spawnEnemy();
+        int slot = enemies.size() - 1;
+        int reward = enemies.getReward(slot);
+        enemies.remove(slot);
+        return reward;
+    }
+}
\ No newline at end of file
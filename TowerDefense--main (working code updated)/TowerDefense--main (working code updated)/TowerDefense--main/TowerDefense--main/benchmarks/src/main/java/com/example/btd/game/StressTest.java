@@ -0,0 +1,231 @@
+package com.example.btd.game;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Runs the whole simulation on extreme game states, built directly from the game
+ * classes, and reports how it holds up: ticks per second, p50/p99/max tick time,
+ * heap growth and garbage collections over the measured ticks.
+ *
+ * Unlike the JMH benchmarks this drives GameSimulation.tick as the game does, one
+ * fixed step at a time, so it shows where the phases together stop keeping up
+ * with real time (120 ticks per second). Between ticks, outside the timing, leaked
+ * and killed enemies and finished projectiles are topped up again so the load
+ * stays the same for the whole run, and lives are kept from running out.
+ *
+ * Build the benchmarks jar, then:
+ *     java -cp target/benchmarks.jar com.example.btd.game.StressTest [--ticks N] [--sequential] [--render] [scenario ...]
+ *
+ * --sequential keeps tower targeting on the ticking thread however many towers
+ * there are, to compare against the fork/join read phase on large boards.
+ *
+ * With --render every tick is also drawn by GameRenderer onto canvases that are
+ * not shown. This needs a display for the JavaFX toolkit, and only measures the
+ * drawing calls; the canvases are rasterized later by JavaFX, outside the timing.
+ */
+public final class StressTest {
+    private static final int WARMUP_TICKS = 600;
+    // 30 seconds of game time
+    private static final int DEFAULT_TICKS = 3600;
+
+    /**
+     * The state a scenario holds for the whole run.
+     */
+    private enum Load {
+        TOWERS(1, 1_000, 1_000, 0),
+        ENEMIES(1, 10, 20_000, 0),
+        PROJECTILES(1, 10, 1_000, 50_000),
+        BOSS(100, 100, 5_000, 0),
+        ALL(110, 1_000, 20_000, 50_000);
+
+        final int wave;
+        final int towers;
+        final int enemies;
+        final int projectiles;
+
+        Load(int wave, int towers, int enemies, int projectiles) {
+            this.wave = wave;
+            this.towers = towers;
+            this.enemies = enemies;
+            this.projectiles = projectiles;
+        }
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    private StressTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ticks = DEFAULT_TICKS;
+        boolean render = false;
+        boolean sequential = false;
+        List<Load> loads = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--ticks") && i + 1 < args.length) {
+                ticks = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--render")) {
+                render = true;
+            } else if (args[i].equals("--sequential")) {
+                sequential = true;
+            } else {
+                try {
+                    loads.add(Load.valueOf(args[i].toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Unknown scenario " + args[i] + "; expected one of "
+                        + Arrays.toString(Load.values()).toLowerCase());
+                    System.exit(1);
+                }
+            }
+        }
+        if (loads.isEmpty()) {
+            loads.addAll(Arrays.asList(Load.values()));
+        }
+
+        if (render) {
+            // Canvases can be drawn on only from the FX thread, so the whole run moves there
+            Platform.startup(() -> { });
+            int measuredTicks = ticks;
+            boolean sequentialTargeting = sequential;
+            runOnFxThread(() -> runAll(loads, measuredTicks, sequentialTargeting, true));
+            Platform.exit();
+        } else {
+            runAll(loads, ticks, sequential, false);
+        }
+    }
+
+    private static void runAll(List<Load> loads, int ticks, boolean sequential, boolean render) {
+        System.out.printf("%-12s %5s %7s %8s %11s %9s %9s %8s %8s %8s %9s %5s %9s%n",
+            "scenario", "wave", "towers", "enemies", "projectiles",
+            "ticks/s", "realtime", "p50 ms", "p99 ms", "max ms", "heap MB", "GCs", "dropped");
+        for (Load load : loads) {
+            run(load, ticks, sequential, render);
+        }
+    }
+
+    private static void run(Load load, int ticks, boolean sequential, boolean render) {
+        Random random = new Random(Scenario.SEED);
+        // Room for the towers' own shots on top of the ones kept in flight
+        GameSimulation simulation = Scenario.simulation(load.wave, load.projectiles * 2);
+        simulation.setLives(Integer.MAX_VALUE);
+        if (sequential) {
+            simulation.setParallelTargetingThreshold(Integer.MAX_VALUE);
+        }
+        Scenario.placeTowers(simulation, load.towers, random);
+        Scenario.spreadEnemies(simulation, load.enemies);
+        Scenario.fireProjectiles(simulation, load.projectiles, random);
+        GameRenderer renderer = render ? newRenderer() : null;
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            step(simulation, renderer);
+            refill(simulation, load, random);
+        }
+
+        long[] tickNanos = new long[ticks];
+        long droppedBefore = simulation.getProjectiles().getDroppedCount();
+        long heapBefore = usedHeapAfterGc();
+        long gcsBefore = collectionCount();
+        for (int i = 0; i < ticks; i++) {
+            long start = System.nanoTime();
+            step(simulation, renderer);
+            tickNanos[i] = System.nanoTime() - start;
+            refill(simulation, load, random);
+        }
+        // Count the collections before the one usedHeapAfterGc forces
+        long gcs = collectionCount() - gcsBefore;
+        long heapGrowth = usedHeapAfterGc() - heapBefore;
+        long dropped = simulation.getProjectiles().getDroppedCount() - droppedBefore;
+
+        long totalNanos = 0;
+        for (long nanos : tickNanos) {
+            totalNanos += nanos;
+        }
+        Arrays.sort(tickNanos);
+        double ticksPerSecond = ticks / (totalNanos / 1e9);
+        System.out.printf("%-12s %5d %7d %8d %11d %9.0f %8.2fx %8.3f %8.3f %8.3f %+9.1f %5d %9d%n",
+            load.label(), load.wave, load.towers, load.enemies, load.projectiles,
+            ticksPerSecond, ticksPerSecond / GameSimulation.TICKS_PER_SECOND,
+            millis(percentile(tickNanos, 0.50)), millis(percentile(tickNanos, 0.99)),
+            millis(tickNanos[ticks - 1]), heapGrowth / (1024.0 * 1024.0), gcs, dropped);
+    }
+
+    private static void step(GameSimulation simulation, GameRenderer renderer) {
+        simulation.tick(GameSimulation.TICK_SECONDS);
+        if (renderer != null) {
+            renderer.render(simulation, null, 0, 0);
+        }
+    }
+
+    /**
+     * Replaces the enemies that leaked or died with new spawns at the entrance and
+     * fires new projectiles for the ones that hit, missed or left the map.
+     */
+    private static void refill(GameSimulation simulation, Load load, Random random) {
+        EnemyStore enemies = simulation.getEnemies();
+        for (int i = enemies.size(); i < load.enemies; i++) {
+            simulation.spawnEnemy();
+        }
+        int missing = load.projectiles - simulation.getProjectiles().getActiveCount();
+        if (missing > 0) {
+            Scenario.fireProjectiles(simulation, missing, random);
+        }
+    }
+
+    private static GameRenderer newRenderer() {
+        return new GameRenderer(new Canvas(Scenario.MAP_WIDTH, Scenario.MAP_HEIGHT),
+            new Canvas(Scenario.MAP_WIDTH, Scenario.MAP_HEIGHT),
+            new Canvas(Scenario.MAP_WIDTH, Scenario.MAP_HEIGHT));
+    }
+
+    private static void runOnFxThread(Runnable task) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Stress run failed", failure.get());
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    // Nearest-rank percentile of sorted values
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
\ No newline at end of file
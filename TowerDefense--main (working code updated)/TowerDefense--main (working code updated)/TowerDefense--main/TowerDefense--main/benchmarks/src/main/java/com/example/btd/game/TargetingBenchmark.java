@@ -0,0 +1,72 @@
+package com.example.btd.game;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Target selection for every tower against enemies spread along the path.
+ *
+ * getTarget is the per-tick call: towers mostly keep their current target, so it
+ * measures the steady state. findNearest is the grid search a tower runs when it
+ * has to pick a new target; rebuildGrid is the once-per-tick bucketing both rely on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TargetingBenchmark {
+    @Param({"100", "1000", "10000"})
+    int enemyCount;
+
+    @Param({"10", "100", "1000"})
+    int towerCount;
+
+    private EnemyStore enemies;
+    private EnemyGrid grid;
+    private List<Tower> towers;
+
+    @Setup
+    public void setUp() {
+        GameSimulation simulation = Scenario.simulation(1, 0);
+        Scenario.spreadEnemies(simulation, enemyCount);
+        Scenario.placeTowers(simulation, towerCount, new Random(Scenario.SEED));
+        enemies = simulation.getEnemies();
+        grid = Scenario.grid(simulation);
+        towers = simulation.getTowers();
+    }
+
+    @Benchmark
+    public void getTarget(Blackhole blackhole) {
+        for (Tower tower : towers) {
+            blackhole.consume(tower.getTarget(enemies, grid));
+        }
+    }
+
+    @Benchmark
+    public void findNearest(Blackhole blackhole) {
+        for (Tower tower : towers) {
+            blackhole.consume(grid.findNearest(tower.getX(), tower.getY(), tower.getRange(), false));
+        }
+    }
+
+    @Benchmark
+    public EnemyGrid rebuildGrid() {
+        grid.rebuild(enemies);
+        return grid;
+    }
+}
\ No newline at end of file
@@ -3,11 +3,27 @@ package com.example.btd;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import com.example.btd.game.GameMetrics;
+import com.example.btd.game.LeaderboardManager;
+import com.example.btd.game.SpriteCache;
+import com.example.btd.game.Tower;
 import com.example.btd.ui.GameScene;
 
 public class Main extends Application {
+    // One database connection for the whole session, shared by every game
+    private LeaderboardManager leaderboardManager;
+    // JMX view of whichever game is running, registered for the whole session
+    private final GameMetrics gameMetrics = new GameMetrics();
+
     @Override
     public void start(Stage primaryStage) {
+        // Use screen size for fullscreen
+        javafx.geometry.Rectangle2D screenBounds = javafx.stage.Screen.getPrimary().getVisualBounds();
+        double gameAreaHeight = screenBounds.getHeight();
+
+        // Decode and scale the tower sprites in the background while the player types their name
+        SpriteCache.preloadTowerSprites(Tower.sizeForMapHeight(gameAreaHeight));
+
         // Create name input dialog
         javafx.scene.control.TextInputDialog nameDialog = new javafx.scene.control.TextInputDialog("Player");
         nameDialog.setTitle("Welcome to Balloon Tower Defense");
@@ -23,12 +39,12 @@ public class Main extends Application {
         if (result.isPresent()) {
             String playerName = result.get();
             
-            // Use screen size for fullscreen
-            javafx.geometry.Rectangle2D screenBounds = javafx.stage.Screen.getPrimary().getVisualBounds();
             double gameAreaWidth = screenBounds.getWidth() * 0.8; // Game area takes 80% of screen width
-            double gameAreaHeight = screenBounds.getHeight();
             double panelWidth = screenBounds.getWidth() * 0.2; // Panel takes 20% of screen width
-            GameScene gameScene = new GameScene(gameAreaWidth, gameAreaHeight, panelWidth, playerName);
+            leaderboardManager = new LeaderboardManager();
+            gameMetrics.register();
+            GameScene gameScene = new GameScene(gameAreaWidth, gameAreaHeight, panelWidth, playerName,
+                leaderboardManager, gameMetrics);
             Scene scene = new Scene(gameScene, screenBounds.getWidth(), screenBounds.getHeight());
             scene.getStylesheets().add(getClass().getResource("/styles/game.css").toExternalForm());
 
@@ -42,7 +58,32 @@ public class Main extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        gameMetrics.close();
+        if (leaderboardManager != null) {
+            leaderboardManager.close();
+        }
+    }
+
     public static void main(String[] args) {
+        // Bulk transfers run without the UI: --import <file> or --export <file> (.csv or JSON lines)
+        if (args.length == 2 && (args[0].equals("--import") || args[0].equals("--export"))) {
+            runTransfer(args[0], java.nio.file.Paths.get(args[1]));
+            return;
+        }
         launch(args);
     }
+
+    private static void runTransfer(String command, java.nio.file.Path file) {
+        try (LeaderboardManager leaderboard = new LeaderboardManager()) {
+            long start = System.nanoTime();
+            long rows = command.equals("--import") ? leaderboard.importScores(file) : leaderboard.exportScores(file);
+            System.out.printf("%s %d scores in %.1f s%n", command.equals("--import") ? "Imported" : "Exported",
+                rows, (System.nanoTime() - start) / 1e9);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.btd.game;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * The debug overlay toggled with F3: p50/p99/max of every tick and frame phase in
+ * the current wave, entity counts, and how fast the FX thread allocates memory.
+ *
+ * The text is formatted again only twice a second, so the overlay's own strings
+ * barely show up in the allocation rate it reports.
+ */
+class DebugOverlay {
+    private static final long REFRESH_NANOS = 500_000_000L;
+    private static final Font FONT = Font.font("Monospaced", 12);
+    private static final double LINE_HEIGHT = 15;
+    private static final double WIDTH = 420;
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+
+    // Null when the JVM cannot report per-thread allocation
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private final String[] lines = new String[PHASES.length + 3];
+    private long lastRefresh;
+    private long lastAllocatedBytes = -1;
+
+    DebugOverlay() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threads;
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            allocationBean = null;
+        }
+    }
+
+    void render(GraphicsContext gc, GameSimulation simulation, double canvasWidth) {
+        long now = System.nanoTime();
+        if (lines[0] == null || now - lastRefresh >= REFRESH_NANOS) {
+            refresh(simulation, now);
+        }
+
+        double x = canvasWidth - WIDTH - 10;
+        gc.save();
+        gc.setFill(Color.color(0, 0, 0, 0.7));
+        gc.fillRect(x, 10, WIDTH, lines.length * LINE_HEIGHT + 10);
+        gc.setFont(FONT);
+        gc.setFill(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            gc.fillText(lines[i], x + 8, 25 + i * LINE_HEIGHT);
+        }
+        gc.restore();
+    }
+
+    private void refresh(GameSimulation simulation, long now) {
+        FrameProfiler profiler = simulation.getProfiler();
+        lines[0] = String.format(Locale.ROOT, "Wave %-4d (ms)         p50      p99      max", profiler.getWave());
+        for (int i = 0; i < PHASES.length; i++) {
+            LatencyHistogram histogram = profiler.getHistogram(PHASES[i]);
+            lines[i + 1] = String.format(Locale.ROOT, "%-20s %8.3f %8.3f %8.3f", PHASES[i].getLabel(),
+                FrameProfiler.millis(histogram.getValueAtPercentile(0.50)),
+                FrameProfiler.millis(histogram.getValueAtPercentile(0.99)),
+                FrameProfiler.millis(histogram.getMax()));
+        }
+
+        ProjectilePool projectiles = simulation.getProjectiles();
+        lines[PHASES.length + 1] = String.format(Locale.ROOT, "Enemies %d  Towers %d  Projectiles %d/%d",
+            simulation.getEnemies().size(), simulation.getTowers().size(),
+            projectiles.getActiveCount(), projectiles.getCapacity());
+        lines[PHASES.length + 2] = String.format(Locale.ROOT, "Dropped shots %d  Allocation %s",
+            projectiles.getDroppedCount(), allocationRate(now));
+        lastRefresh = now;
+    }
+
+    // FX thread allocation since the previous refresh, in MB per second
+    private String allocationRate(long now) {
+        if (allocationBean == null) {
+            return "n/a";
+        }
+        long allocated = allocationBean.getCurrentThreadAllocatedBytes();
+        String rate = "...";
+        if (lastAllocatedBytes >= 0) {
+            double seconds = (now - lastRefresh) / 1e9;
+            rate = String.format(Locale.ROOT, "%.2f MB/s", (allocated - lastAllocatedBytes) / seconds / (1024 * 1024));
+        }
+        lastAllocatedBytes = allocated;
+        return rate;
+    }
+}
\ No newline at end of file
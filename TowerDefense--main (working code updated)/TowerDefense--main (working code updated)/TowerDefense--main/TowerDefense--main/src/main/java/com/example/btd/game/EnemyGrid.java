@@ -0,0 +1,158 @@
+package com.example.btd.game;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid that buckets enemies by position, so a tower only looks at enemies
+ * in the cells its range overlaps instead of every enemy on the map. Projectiles
+ * use the same grid as their collision broadphase.
+ *
+ * The grid is rebuilt once per tick with a counting sort into flat int arrays
+ * (cell start offsets plus enemy indices ordered by cell). After the arrays have
+ * grown to fit the largest wave, rebuilding and querying allocate nothing.
+ */
+public class EnemyGrid {
+    private static final double CELL_SIZE_RATIO = 0.08; // Cell size as percentage of the smaller map side
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart; // cellStart[c]..cellStart[c + 1] indexes cellEntries for cell c
+    private final int[] cellCursor;
+    private int[] cellEntries = new int[64]; // enemy slots grouped by cell
+    private int[] entryCell = new int[64]; // cell of each enemy slot
+    private EnemyStore enemies;
+    private double maxEnemySize; // enemy size in the current build, bounds the hit search radius
+    private long hitPairsTested; // projectile/enemy narrow-phase tests since the last rebuild
+
+    public EnemyGrid(double mapWidth, double mapHeight) {
+        this.cellSize = Math.max(1.0, Math.min(mapWidth, mapHeight) * CELL_SIZE_RATIO);
+        this.columns = Math.max(1, (int) Math.ceil(mapWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(mapHeight / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+        this.cellCursor = new int[columns * rows];
+    }
+
+    /**
+     * Re-buckets all enemies at their current positions. Slots returned by queries
+     * are valid until enemies are next removed from the store.
+     */
+    public void rebuild(EnemyStore enemies) {
+        this.enemies = enemies;
+        int count = enemies.size();
+        if (cellEntries.length < count) {
+            int capacity = Math.max(count, cellEntries.length * 2);
+            cellEntries = new int[capacity];
+            entryCell = new int[capacity];
+        }
+
+        // Count enemies per cell, then turn the counts into start offsets
+        Arrays.fill(cellStart, 0);
+        maxEnemySize = enemies.getSize();
+        hitPairsTested = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = row(enemies.getY(i)) * columns + column(enemies.getX(i));
+            entryCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        // Scatter slots into their cells; each cell keeps slot order
+        System.arraycopy(cellStart, 0, cellCursor, 0, cellCursor.length);
+        for (int i = 0; i < count; i++) {
+            cellEntries[cellCursor[entryCell[i]]++] = i;
+        }
+    }
+
+    /**
+     * Returns the slot of the closest living enemy within range of (x, y), or -1.
+     * Camo enemies are skipped unless canSeeCamo is set. Distance ties go to the
+     * lower slot, so the result does not depend on cell visiting order.
+     */
+    public int findNearest(double x, double y, double range, boolean canSeeCamo) {
+        if (enemies == null) return -1;
+
+        int minColumn = column(x - range);
+        int maxColumn = column(x + range);
+        int minRow = row(y - range);
+        int maxRow = row(y + range);
+        double rangeSq = range * range;
+
+        int best = -1;
+        double bestDistanceSq = 0;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int index = cellEntries[k];
+                    if (enemies.isDead(index) || (!canSeeCamo && enemies.hasFlag(index, EnemyStore.FLAG_CAMO))) continue;
+
+                    double dx = x - enemies.getX(index);
+                    double dy = y - enemies.getY(index);
+                    double distanceSq = dx * dx + dy * dy;
+                    if (distanceSq <= rangeSq && (best < 0 || distanceSq < bestDistanceSq
+                            || (distanceSq == bestDistanceSq && index < best))) {
+                        best = index;
+                        bestDistanceSq = distanceSq;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the slot of the enemy a projectile of the given size at (x, y)
+     * overlaps, or -1. Only enemies in cells within reach of the projectile are
+     * tested; when several overlap, the lowest slot is hit.
+     */
+    public int findFirstHit(double x, double y, double size) {
+        if (enemies == null) return -1;
+
+        double reach = (size + maxEnemySize) / 2;
+        int minColumn = column(x - reach);
+        int maxColumn = column(x + reach);
+        int minRow = row(y - reach);
+        int maxRow = row(y + reach);
+
+        int first = -1;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int index = cellEntries[k];
+                    if (first >= 0 && index > first) continue;
+
+                    hitPairsTested++;
+                    double dx = x - enemies.getX(index);
+                    double dy = y - enemies.getY(index);
+                    double touching = (size + maxEnemySize) / 2;
+                    if (dx * dx + dy * dy < touching * touching) {
+                        first = index;
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Number of projectile/enemy pairs that reached the narrow-phase test since the
+     * grid was last rebuilt, i.e. during the current tick.
+     */
+    public long getHitPairsTested() {
+        return hitPairsTested;
+    }
+
+    private int column(double x) {
+        int column = (int) (x / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(double y) {
+        int row = (int) (y / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,260 @@
+package com.example.btd.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All live enemies, stored as parallel primitive arrays instead of one object each.
+ *
+ * Enemies are packed into slots 0..size()-1. Removing one moves the last enemy into
+ * its slot (swap-remove), so removal is O(1) and every per-tick pass is a straight
+ * walk over the arrays. Because slots move, anything that has to remember a
+ * particular enemy across ticks - a tower's current target - keeps a handle instead:
+ * the enemy's id plus a generation counter that is bumped whenever the id is
+ * recycled, so a handle to a removed enemy simply stops resolving.
+ *
+ * The arrays grow by doubling when a wave outgrows them and are reused afterwards;
+ * spawning and removing enemies does not allocate.
+ */
+public class EnemyStore {
+    // Flag bits
+    public static final int FLAG_ARMORED = 1; // Takes reduced damage
+    public static final int FLAG_CAMO = 1 << 1; // Some towers might not see it
+    public static final int FLAG_REGENERATING = 1 << 2; // Heals over time
+    public static final int FLAG_POWER_UP = 1 << 3; // Gives buff to machine towers when defeated
+    public static final int FLAG_DEAD = 1 << 4;
+
+    // Appearance codes (which special property the enemy is drawn as), mapped to colors by GameRenderer
+    public static final int APPEARANCE_NORMAL = 0;
+    public static final int APPEARANCE_ARMORED = 1;
+    public static final int APPEARANCE_CAMO = 2;
+    public static final int APPEARANCE_REGENERATING = 3;
+    public static final int APPEARANCE_POWER_UP = 4;
+
+    public static final long NO_ENEMY = -1L;
+
+    private static final double ENEMY_SIZE_RATIO = 0.03; // Enemy size as percentage of map height
+    private static final double REGEN_RATE = 5.0; // Health regenerated per second
+    private static final double ARMOR_DAMAGE_REDUCTION = 0.5; // Armored enemies take 50% less damage
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double[] pathX;
+    private final double[] pathY;
+    private final double enemySize;
+
+    // Per slot
+    private double[] x;
+    private double[] y;
+    private double[] prevX; // Position at the start of the last tick, for render interpolation
+    private double[] prevY;
+    private double[] health;
+    private double[] maxHealth;
+    private double[] speed;
+    private int[] pathIndex;
+    private int[] reward;
+    private int[] flags;
+    private byte[] appearance;
+    private int[] idOfSlot;
+    private int size;
+
+    // Per id
+    private int[] slotOfId;
+    private int[] generationOfId;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int nextId;
+
+    public EnemyStore(List<PathPoint> path, double mapHeight) {
+        this.pathX = new double[path.size()];
+        this.pathY = new double[path.size()];
+        for (int i = 0; i < path.size(); i++) {
+            pathX[i] = path.get(i).x;
+            pathY[i] = path.get(i).y;
+        }
+        this.enemySize = mapHeight * ENEMY_SIZE_RATIO;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        health = new double[capacity];
+        maxHealth = new double[capacity];
+        speed = new double[capacity];
+        pathIndex = new int[capacity];
+        reward = new int[capacity];
+        flags = new int[capacity];
+        appearance = new byte[capacity];
+        idOfSlot = new int[capacity];
+        slotOfId = new int[capacity];
+        generationOfId = new int[capacity];
+        freeIds = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        pathIndex = Arrays.copyOf(pathIndex, capacity);
+        reward = Arrays.copyOf(reward, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        appearance = Arrays.copyOf(appearance, capacity);
+        idOfSlot = Arrays.copyOf(idOfSlot, capacity);
+        slotOfId = Arrays.copyOf(slotOfId, capacity);
+        generationOfId = Arrays.copyOf(generationOfId, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+    }
+
+    /**
+     * Adds an enemy at the start of the path and returns its slot.
+     */
+    public int spawn(double health, double speed, int reward, int flags, int appearance) {
+        if (size == x.length) {
+            grow();
+        }
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+        int slot = size++;
+
+        double startX = pathX.length > 0 ? pathX[0] : 0;
+        double startY = pathY.length > 0 ? pathY[0] : 0;
+        this.x[slot] = startX;
+        this.y[slot] = startY;
+        this.prevX[slot] = startX;
+        this.prevY[slot] = startY;
+        this.health[slot] = health;
+        this.maxHealth[slot] = health;
+        this.speed[slot] = speed;
+        this.pathIndex[slot] = 0;
+        this.reward[slot] = reward;
+        this.flags[slot] = flags & ~FLAG_DEAD;
+        this.appearance[slot] = (byte) appearance;
+        this.idOfSlot[slot] = id;
+        slotOfId[id] = slot;
+        return slot;
+    }
+
+    /**
+     * Removes the enemy in the given slot by moving the last enemy into it. The
+     * removed enemy's handles stop resolving; the moved enemy keeps its handle.
+     */
+    public void remove(int slot) {
+        int id = idOfSlot[slot];
+        generationOfId[id]++;
+        freeIds[freeIdCount++] = id;
+
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            health[slot] = health[last];
+            maxHealth[slot] = maxHealth[last];
+            speed[slot] = speed[last];
+            pathIndex[slot] = pathIndex[last];
+            reward[slot] = reward[last];
+            flags[slot] = flags[last];
+            appearance[slot] = appearance[last];
+            int movedId = idOfSlot[last];
+            idOfSlot[slot] = movedId;
+            slotOfId[movedId] = slot;
+        }
+    }
+
+    /**
+     * Moves every living enemy along the path and applies regeneration.
+     */
+    public void updateAll(double deltaTime) {
+        int lastPoint = pathX.length - 1;
+        for (int i = 0; i < size; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            if ((flags[i] & FLAG_DEAD) != 0 || pathIndex[i] >= lastPoint) continue;
+
+            // Handle regeneration
+            if ((flags[i] & FLAG_REGENERATING) != 0 && health[i] < maxHealth[i]) {
+                health[i] = Math.min(maxHealth[i], health[i] + REGEN_RATE * deltaTime);
+            }
+
+            int next = pathIndex[i] + 1;
+            double dx = pathX[next] - x[i];
+            double dy = pathY[next] - y[i];
+            double distance = Math.sqrt(dx * dx + dy * dy);
+
+            // Move to next point if we're close enough
+            double moveDistance = speed[i] * deltaTime;
+            if (distance <= moveDistance) {
+                x[i] = pathX[next];
+                y[i] = pathY[next];
+                pathIndex[i] = next;
+            } else {
+                // Move towards the target point
+                x[i] += dx / distance * moveDistance;
+                y[i] += dy / distance * moveDistance;
+            }
+        }
+    }
+
+    public void takeDamage(int slot, double damage) {
+        // Apply armor damage reduction if applicable
+        double actualDamage = (flags[slot] & FLAG_ARMORED) != 0 ? damage * (1 - ARMOR_DAMAGE_REDUCTION) : damage;
+        health[slot] -= actualDamage;
+        if (health[slot] <= 0) {
+            flags[slot] |= FLAG_DEAD;
+        }
+    }
+
+    /**
+     * Returns a handle that keeps identifying the enemy in this slot after other
+     * enemies are removed, until this enemy itself is removed.
+     */
+    public long handleOf(int slot) {
+        int id = idOfSlot[slot];
+        return ((long) generationOfId[id] << 32) | id;
+    }
+
+    /**
+     * Returns the current slot of the enemy behind a handle, or -1 if it has been removed.
+     */
+    public int resolve(long handle) {
+        if (handle == NO_ENEMY) return -1;
+        int id = (int) handle;
+        int generation = (int) (handle >>> 32);
+        if (id < 0 || id >= nextId || generationOfId[id] != generation) return -1;
+        return slotOfId[id];
+    }
+
+    /**
+     * Puts the enemy in the given slot at (x, y), off its path; for tests that need
+     * enemies at exact spots.
+     */
+    void moveTo(int slot, double x, double y) {
+        this.x[slot] = x;
+        this.y[slot] = y;
+        prevX[slot] = x;
+        prevY[slot] = y;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public double getSize() { return enemySize; }
+
+    public double getX(int slot) { return x[slot]; }
+    public double getY(int slot) { return y[slot]; }
+    public double getPrevX(int slot) { return prevX[slot]; }
+    public double getPrevY(int slot) { return prevY[slot]; }
+    public double getHealth(int slot) { return health[slot]; }
+    public double getMaxHealth(int slot) { return maxHealth[slot]; }
+    public int getReward(int slot) { return reward[slot]; }
+    public int getAppearance(int slot) { return appearance[slot]; }
+    public boolean hasFlag(int slot, int flag) { return (flags[slot] & flag) != 0; }
+    public boolean isDead(int slot) { return (flags[slot] & FLAG_DEAD) != 0; }
+    public boolean hasReachedEnd(int slot) { return pathIndex[slot] >= pathX.length - 1; }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.example.btd.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Times each phase of a tick and of a frame into one LatencyHistogram per phase.
+ * A phase is timed by passing the nanoTime it started at to {@link #record}, which
+ * returns the time to use as the start of the next phase, so timing a phase costs
+ * one System.nanoTime call and a few atomic increments.
+ *
+ * The histograms cover the current wave. When a new wave starts, the finished
+ * wave is summarized into one row of numbers per phase and the histograms are
+ * cleared; {@link #writeWaveSummary(Path)} formats those rows as CSV at the end of
+ * a game, so a wave change does not allocate strings in the middle of play.
+ * Whole ticks also go into a TickWindow, for rolling statistics across waves.
+ */
+final class FrameProfiler {
+    enum Phase {
+        SPAWN("spawn"),
+        ENEMY_UPDATE("enemy update"),
+        TARGETING("targeting"),
+        PROJECTILES("projectile collision"),
+        MAP_RENDER("map render"),
+        ENTITY_RENDER("entity render"),
+        HUD("HUD");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        String getLabel() { return label; }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final String CSV_HEADER = "wave,phase,count,mean_ms,p50_ms,p99_ms,max_ms";
+    // A summary row is wave, phase ordinal, count, mean, p50, p99 and max
+    private static final int ROW_LENGTH = 7;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    // Summary rows back to back; grows by doubling, room for 64 waves to start with
+    private long[] waveRows = new long[64 * PHASES.length * ROW_LENGTH];
+    private int waveRowCount;
+    private final TickWindow ticks = new TickWindow();
+    private int wave;
+
+    FrameProfiler() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time since startNanos for the given phase and returns the
+     * current nanoTime.
+     */
+    long record(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    void recordTick(long startNanos, long endNanos) {
+        ticks.record(startNanos, endNanos - startNanos);
+    }
+
+    TickWindow getTicks() {
+        return ticks;
+    }
+
+    LatencyHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    int getWave() {
+        return wave;
+    }
+
+    /**
+     * Summarizes the wave that just ended, if any, and starts timing the given one.
+     */
+    void startWave(int wave) {
+        summarizeWave();
+        this.wave = wave;
+    }
+
+    /**
+     * Summarizes the current wave; called once when the game ends.
+     */
+    void finish() {
+        summarizeWave();
+    }
+
+    /**
+     * Writes the summaries of every finished wave as CSV.
+     */
+    void writeWaveSummary(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (int row = 0; row < waveRowCount; row++) {
+                int at = row * ROW_LENGTH;
+                writer.write(String.format(Locale.ROOT, "%d,%s,%d,%.4f,%.4f,%.4f,%.4f",
+                    waveRows[at], PHASES[(int) waveRows[at + 1]].getLabel(), waveRows[at + 2],
+                    millis(waveRows[at + 3]), millis(waveRows[at + 4]), millis(waveRows[at + 5]),
+                    millis(waveRows[at + 6])));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void summarizeWave() {
+        if (wave > 0) {
+            for (Phase phase : PHASES) {
+                LatencyHistogram histogram = histograms[phase.ordinal()];
+                if (histogram.getCount() > 0) {
+                    addWaveRow(wave, phase.ordinal(), histogram.getCount(), histogram.getMean(),
+                        histogram.getValueAtPercentile(0.50), histogram.getValueAtPercentile(0.99),
+                        histogram.getMax());
+                }
+            }
+        }
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    private void addWaveRow(int wave, int phase, long count, long mean, long p50, long p99, long max) {
+        int at = waveRowCount * ROW_LENGTH;
+        if (at + ROW_LENGTH > waveRows.length) {
+            waveRows = Arrays.copyOf(waveRows, waveRows.length * 2);
+        }
+        waveRows[at] = wave;
+        waveRows[at + 1] = phase;
+        waveRows[at + 2] = count;
+        waveRows[at + 3] = mean;
+        waveRows[at + 4] = p50;
+        waveRows[at + 5] = p99;
+        waveRows[at + 6] = max;
+        waveRowCount++;
+    }
+
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+package com.example.btd.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder events for gameplay and engine milestones, so a recording
+ * (e.g. java -XX:StartFlightRecording ...) shows waves, spawns, shots, leaks,
+ * leaderboard writes and slow ticks next to the JVM's own GC and thread events.
+ *
+ * The helpers below check the event type's isEnabled() before creating an event,
+ * so while nothing is recording an event costs one boolean read and allocates
+ * nothing. The frequent ones are cut down: TowerFired is sampled, one event per
+ * SHOT_SAMPLE_INTERVAL shots, and TickCompleted only records ticks slower than its
+ * threshold (8 ms by default, about one tick's budget, and adjustable in the
+ * recording settings like any JFR threshold).
+ */
+final class GameEvents {
+    private static final String CATEGORY = "Tower Defense";
+    static final int SHOT_SAMPLE_INTERVAL = 64;
+
+    @Name("com.example.btd.WaveStarted")
+    @Label("Wave Started")
+    @Category({CATEGORY, "Gameplay"})
+    @StackTrace(false)
+    static final class WaveStarted extends Event {
+        @Label("Wave")
+        int wave;
+
+        @Label("Enemies In Wave")
+        int enemies;
+    }
+
+    @Name("com.example.btd.WaveCompleted")
+    @Label("Wave Completed")
+    @Description("The last enemy of the wave died or leaked")
+    @Category({CATEGORY, "Gameplay"})
+    @StackTrace(false)
+    static final class WaveCompleted extends Event {
+        @Label("Wave")
+        int wave;
+
+        @Label("Lives")
+        int lives;
+
+        @Label("Money")
+        int money;
+
+        @Label("Score")
+        int score;
+    }
+
+    @Name("com.example.btd.EnemySpawned")
+    @Label("Enemy Spawned")
+    @Category({CATEGORY, "Gameplay"})
+    @StackTrace(false)
+    static final class EnemySpawned extends Event {
+        @Label("Wave")
+        int wave;
+
+        @Label("Health")
+        double health;
+
+        @Label("Reward")
+        int reward;
+
+        @Label("Camo")
+        boolean camo;
+
+        @Label("Armored")
+        boolean armored;
+
+        @Label("Regenerating")
+        boolean regenerating;
+
+        @Label("Power-Up")
+        boolean powerUp;
+    }
+
+    @Name("com.example.btd.TowerFired")
+    @Label("Tower Fired")
+    @Description("A sampled shot; each event stands for Sample Weight shots")
+    @Category({CATEGORY, "Gameplay"})
+    @StackTrace(false)
+    static final class TowerFired extends Event {
+        @Label("Tower Type")
+        String towerType;
+
+        @Label("X")
+        double x;
+
+        @Label("Y")
+        double y;
+
+        @Label("Target Health")
+        double targetHealth;
+
+        @Label("Sample Weight")
+        int sampleWeight;
+    }
+
+    @Name("com.example.btd.EnemyLeaked")
+    @Label("Enemy Leaked")
+    @Description("An enemy reached the end of the path and cost a life")
+    @Category({CATEGORY, "Gameplay"})
+    @StackTrace(false)
+    static final class EnemyLeaked extends Event {
+        @Label("Wave")
+        int wave;
+
+        @Label("Remaining Health")
+        double health;
+
+        @Label("Lives Left")
+        int livesLeft;
+    }
+
+    @Name("com.example.btd.LeaderboardWrite")
+    @Label("Leaderboard Write")
+    @Category({CATEGORY, "Leaderboard"})
+    static final class LeaderboardWrite extends Event {
+        @Label("Scores")
+        int scores;
+
+        @Label("Store")
+        String store;
+
+        @Label("Succeeded")
+        boolean succeeded;
+    }
+
+    @Name("com.example.btd.TickCompleted")
+    @Label("Tick Completed")
+    @Description("A simulation tick that took longer than the threshold, with the time of each phase")
+    @Category({CATEGORY, "Engine"})
+    @Threshold("8 ms")
+    @StackTrace(false)
+    static final class TickCompleted extends Event {
+        @Label("Wave")
+        int wave;
+
+        @Label("Enemies")
+        int enemies;
+
+        @Label("Projectiles")
+        int projectiles;
+
+        @Label("Spawn")
+        @Timespan(Timespan.NANOSECONDS)
+        long spawn;
+
+        @Label("Enemy Update")
+        @Timespan(Timespan.NANOSECONDS)
+        long enemyUpdate;
+
+        @Label("Targeting")
+        @Timespan(Timespan.NANOSECONDS)
+        long targeting;
+
+        @Label("Projectile Collision")
+        @Timespan(Timespan.NANOSECONDS)
+        long projectileCollision;
+    }
+
+    private static final EventType WAVE_STARTED = EventType.getEventType(WaveStarted.class);
+    private static final EventType WAVE_COMPLETED = EventType.getEventType(WaveCompleted.class);
+    private static final EventType ENEMY_SPAWNED = EventType.getEventType(EnemySpawned.class);
+    private static final EventType TOWER_FIRED = EventType.getEventType(TowerFired.class);
+    private static final EventType ENEMY_LEAKED = EventType.getEventType(EnemyLeaked.class);
+    private static final EventType TICK_COMPLETED = EventType.getEventType(TickCompleted.class);
+
+    // Shots seen since the last sampled one; only the game thread updates it
+    private static int shotsSinceSample;
+
+    private GameEvents() {
+    }
+
+    static void waveStarted(int wave, int enemies) {
+        if (WAVE_STARTED.isEnabled()) {
+            WaveStarted event = new WaveStarted();
+            event.wave = wave;
+            event.enemies = enemies;
+            event.commit();
+        }
+    }
+
+    static void waveCompleted(int wave, int lives, int money, int score) {
+        if (WAVE_COMPLETED.isEnabled()) {
+            WaveCompleted event = new WaveCompleted();
+            event.wave = wave;
+            event.lives = lives;
+            event.money = money;
+            event.score = score;
+            event.commit();
+        }
+    }
+
+    static void enemySpawned(int wave, double health, int reward, int flags) {
+        if (ENEMY_SPAWNED.isEnabled()) {
+            EnemySpawned event = new EnemySpawned();
+            event.wave = wave;
+            event.health = health;
+            event.reward = reward;
+            event.camo = (flags & EnemyStore.FLAG_CAMO) != 0;
+            event.armored = (flags & EnemyStore.FLAG_ARMORED) != 0;
+            event.regenerating = (flags & EnemyStore.FLAG_REGENERATING) != 0;
+            event.powerUp = (flags & EnemyStore.FLAG_POWER_UP) != 0;
+            event.commit();
+        }
+    }
+
+    static void towerFired(Tower tower, double targetHealth) {
+        if (TOWER_FIRED.isEnabled() && ++shotsSinceSample >= SHOT_SAMPLE_INTERVAL) {
+            shotsSinceSample = 0;
+            TowerFired event = new TowerFired();
+            event.towerType = tower.getType();
+            event.x = tower.getX();
+            event.y = tower.getY();
+            event.targetHealth = targetHealth;
+            event.sampleWeight = SHOT_SAMPLE_INTERVAL;
+            event.commit();
+        }
+    }
+
+    static void enemyLeaked(int wave, double health, int livesLeft) {
+        if (ENEMY_LEAKED.isEnabled()) {
+            EnemyLeaked event = new EnemyLeaked();
+            event.wave = wave;
+            event.health = health;
+            event.livesLeft = livesLeft;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a tick, or returns null while TickCompleted is not recorded.
+     */
+    static TickCompleted beginTick() {
+        if (!TICK_COMPLETED.isEnabled()) {
+            return null;
+        }
+        TickCompleted event = new TickCompleted();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends a tick started with beginTick and commits it if it ran past the threshold.
+     */
+    static void endTick(TickCompleted event, GameSimulation simulation,
+                        long spawn, long enemyUpdate, long targeting, long projectileCollision) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.wave = simulation.getCurrentWave();
+            event.enemies = simulation.getEnemies().size();
+            event.projectiles = simulation.getProjectiles().getActiveCount();
+            event.spawn = spawn;
+            event.enemyUpdate = enemyUpdate;
+            event.targeting = targeting;
+            event.projectileCollision = projectileCollision;
+            event.commit();
+        }
+    }
+}
\ No newline at end of file
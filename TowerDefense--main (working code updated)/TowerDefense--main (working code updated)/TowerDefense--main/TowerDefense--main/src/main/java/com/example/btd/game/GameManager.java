@@ -1,98 +1,105 @@
 package com.example.btd.game;
 
 import javafx.animation.AnimationTimer;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
-
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Connects a GameSimulation to the JavaFX scene: runs it from an AnimationTimer,
+ * draws it through GameRenderer and forwards player input to its command API.
+ *
+ * Money, lives, score, wave, preview and game-over state are also published as
+ * read-only properties for the UI to bind to. They are refreshed after every frame
+ * and command, but a property only notifies its listeners when its value actually
+ * changes, so the UI does no work on frames where nothing it shows has moved.
+ */
 public class GameManager {
     private final Canvas gameCanvas;
-    private final GraphicsContext gc;
-    private final GameMap gameMap;
-    private final List<PathPoint> path;
-    private final List<Tower> towers;
-    private final List<Enemy> enemies;
-    private final List<Projectile> projectiles;
+    private final GameSimulation simulation;
+    private final GameRenderer renderer;
     private final LeaderboardManager leaderboardManager;
     private final String playerName;
 
     private AnimationTimer gameLoop;
     private long lastUpdateTime;
     private double deltaTime;
-    private int money;
-    private int lives;
-    private int score;
-    private int spawnCounter;
-    private boolean gameOver;
-    private double gameSpeed;
-    private int currentWave;
-    private int enemiesRemainingInWave;
-    private int totalEnemiesSpawned;
-    private boolean waveInProgress;
-    private int enemiesPerWave;
-
-    private static final int STARTING_MONEY = 200; // Enough for 1 advanced tower or multiple basic towers
-    private static final int STARTING_LIVES = 50; // More forgiving number of lives
-    private static final int ENEMY_SPAWN_DELAY = 60;
-    private static final int INITIAL_ENEMIES_PER_WAVE = 5; // Start with 5 enemies in wave 1
-    private static final int ENEMIES_INCREASE_PER_WAVE = 3; // Add 3 more enemies each wave
-    private static final int WAVE_BREAK_TIME = 300; // Time between waves (in frames)
-    private static final double BUFF_DURATION = 7.0; // seconds to buff machine towers
-    // Track whether the special power-up enemy has been spawned this wave
-    private boolean powerUpSpawnedThisWave = false;
-    // Global buff timer for UI display (seconds remaining)
-    private double globalBuffTimeRemaining = 0.0;
-    
+    private CompletableFuture<Void> scoreSubmission;
+
+    private final ReadOnlyIntegerWrapper money = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper lives = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper score = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper wave = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyBooleanWrapper previewActive = new ReadOnlyBooleanWrapper();
+    private final ReadOnlyBooleanWrapper gameOver = new ReadOnlyBooleanWrapper();
+    // Writable, so the speed slider and JMX both drive it and each sees the other's changes
+    private final DoubleProperty gameSpeed = new SimpleDoubleProperty(this, "gameSpeed", 1.0) {
+        @Override
+        public void set(double speed) {
+            super.set(Math.max(0.1, Math.min(3.0, speed))); // Clamp between 0.1x and 3.0x
+        }
+    };
+
+    // Longest real frame time fed to the simulation; a longer hitch just pauses the game briefly
+    private static final double MAX_FRAME_SECONDS = 0.25;
+    // Per-wave phase timings are written to frame-profile-<time>.csv in the working directory
+    private static final DateTimeFormatter PROFILE_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     // Preview tower for placement
     private Tower previewTower = null;
     private String previewTowerType = null;
     private double previewX = 0;
     private double previewY = 0;
 
-    public GameManager(Canvas gameCanvas, String playerName) {
+    /**
+     * Takes three stacked canvases of the same size: the static map layer at the
+     * bottom, the tower layer, and the per-frame entity layer on top. The
+     * leaderboard is shared by every game of the session and owned by the caller.
+     */
+    public GameManager(Canvas mapCanvas, Canvas towerCanvas, Canvas gameCanvas, String playerName,
+                       LeaderboardManager leaderboardManager) {
         this.gameCanvas = gameCanvas;
-        this.gc = gameCanvas.getGraphicsContext2D();
         this.playerName = playerName;
-        this.gameMap = new GameMap(gameCanvas.getWidth(), gameCanvas.getHeight());
-        this.path = new ArrayList<>();
-        this.towers = new ArrayList<>();
-        this.enemies = new ArrayList<>();
-        this.projectiles = new ArrayList<>();
-        this.leaderboardManager = new LeaderboardManager();
-        
+        this.simulation = new GameSimulation(gameCanvas.getWidth(), gameCanvas.getHeight());
+        this.renderer = new GameRenderer(mapCanvas, towerCanvas, gameCanvas);
+
+        // Re-rasterize the cached layers only when their canvas changes size
+        mapCanvas.widthProperty().addListener(obs -> renderer.invalidateMapLayer());
+        mapCanvas.heightProperty().addListener(obs -> renderer.invalidateMapLayer());
+        towerCanvas.widthProperty().addListener(obs -> renderer.invalidateTowerLayer());
+        towerCanvas.heightProperty().addListener(obs -> renderer.invalidateTowerLayer());
+        this.leaderboardManager = leaderboardManager;
+
         initializeGame();
-        initializePath();
         startGameLoop();
     }
 
     private void initializeGame() {
-        money = STARTING_MONEY;
-        lives = STARTING_LIVES;
-        score = 0;
-        spawnCounter = 0;
-        gameOver = false;
         lastUpdateTime = 0;
-        gameSpeed = 1.0; // Default game speed
-        currentWave = 1;
-        startNewWave();
+        gameSpeed.set(1.0); // Default game speed
+        syncProperties();
     }
 
-    private void startNewWave() {
-        enemiesPerWave = INITIAL_ENEMIES_PER_WAVE + (currentWave - 1) * ENEMIES_INCREASE_PER_WAVE;
-        enemiesRemainingInWave = enemiesPerWave;
-        totalEnemiesSpawned = 0;
-        waveInProgress = true;
-        spawnCounter = 0;
-        powerUpSpawnedThisWave = false;
-    }
-
-    private void initializePath() {
-        // Get the path from GameMap
-        path.addAll(gameMap.getPath());
+    /**
+     * Copies the simulation's counters into the UI-facing properties. Setting a
+     * property to its current value is a no-op, so unchanged values cost nothing.
+     */
+    private void syncProperties() {
+        money.set(simulation.getMoney());
+        lives.set(simulation.getLives());
+        score.set(simulation.getScore());
+        wave.set(simulation.getCurrentWave());
     }
 
     private void startGameLoop() {
@@ -104,7 +111,8 @@ public class GameManager {
                     return;
                 }
                 deltaTime = (now - lastUpdateTime) / 1_000_000_000.0; // Convert nanoseconds to seconds
-                deltaTime *= gameSpeed; // Apply game speed multiplier
+                deltaTime = Math.min(deltaTime, MAX_FRAME_SECONDS);
+                deltaTime *= gameSpeed.get(); // Apply game speed multiplier
                 lastUpdateTime = now;
                 update(deltaTime);
                 render();
@@ -114,165 +122,18 @@ public class GameManager {
     }
 
     private void update(double deltaTime) {
-        if (gameOver) return;
-
-        // Update global buff timer
-        if (globalBuffTimeRemaining > 0) {
-            globalBuffTimeRemaining = Math.max(0.0, globalBuffTimeRemaining - deltaTime);
-        }
-
-        // Handle wave progression
-        if (waveInProgress) {
-            spawnCounter++;
-            if (spawnCounter >= ENEMY_SPAWN_DELAY && totalEnemiesSpawned < enemiesPerWave) {
-                spawnEnemy();
-                spawnCounter = 0;
-                totalEnemiesSpawned++;
-            }
-        } else {
-            spawnCounter++;
-            if (spawnCounter >= WAVE_BREAK_TIME && enemies.isEmpty()) {
-                currentWave++;
-                startNewWave();
-            }
-        }
-
-        // Check if wave is complete
-        if (waveInProgress && totalEnemiesSpawned >= enemiesPerWave && enemies.isEmpty()) {
-            waveInProgress = false;
-            spawnCounter = 0;
-        }
-
-        // Update enemies
-        Iterator<Enemy> enemyIterator = enemies.iterator();
-        while (enemyIterator.hasNext()) {
-            Enemy enemy = enemyIterator.next();
-            enemy.update(deltaTime);
-            if (enemy.hasReachedEnd()) {
-                lives--;
-                enemyIterator.remove();
-                if (lives <= 0) {
-                    endGame();
-                }
-            } else if (enemy.isDead()) {
-                // If this was a power-up enemy, apply buff to all machine towers
-                if (enemy.isPowerUp()) {
-                    for (Tower tower : towers) {
-                        tower.applyBuff(BUFF_DURATION);
-                    }
-                    // start global buff timer for UI
-                    globalBuffTimeRemaining = BUFF_DURATION;
-                }
-                money += enemy.getReward();
-                score += enemy.getReward();
-                enemyIterator.remove();
-            }
-        }
-
-        // Update towers and handle shooting
-        for (Tower tower : towers) {
-            tower.update(deltaTime, enemies);
-            Enemy target = tower.getTarget(enemies);
-            if (target != null && tower.isReadyToShoot()) {
-                Projectile projectile = tower.createProjectile(target);
-                if (projectile != null) {
-                    projectiles.add(projectile);
-                }
-            }
-        }
-
-        // Update projectiles and check for collisions
-        Iterator<Projectile> projectileIterator = projectiles.iterator();
-        while (projectileIterator.hasNext()) {
-            Projectile projectile = projectileIterator.next();
-            projectile.update(deltaTime);
-
-            // Check if the projectile hits any enemy
-            for (Enemy enemy : enemies) {
-                if (isCollision(projectile, enemy)) {
-                    enemy.takeDamage(projectile.damage);
-                    projectileIterator.remove();
-                    break;
-                }
-            }
+        if (gameOver.get()) return;
 
-            // Remove projectiles that are out of bounds
-            if (!isProjectileInBounds(projectile)) {
-                projectileIterator.remove();
-            }
+        // Run whole fixed-length ticks; leftover time is carried over and used for interpolation
+        simulation.advance(deltaTime);
+        syncProperties();
+        if (simulation.isGameOver()) {
+            endGame();
         }
     }
 
-    private boolean isCollision(Projectile projectile, Enemy enemy) {
-        double dx = projectile.x - enemy.getX();
-        double dy = projectile.y - enemy.getY();
-        double distance = Math.sqrt(dx * dx + dy * dy);
-        return distance < (projectile.size + enemy.getSize()) / 2;
-    }
-
-    private boolean isProjectileInBounds(Projectile projectile) {
-        return projectile.x >= 0 && projectile.x <= gameCanvas.getWidth() &&
-               projectile.y >= 0 && projectile.y <= gameCanvas.getHeight();
-    }
-
     private void render() {
-        // Clear the canvas
-        gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
-
-        // Draw the map
-        gameMap.render(gc);
-
-        // Draw path points for debugging
-        for (PathPoint point : path) {
-            gc.setFill(Color.RED);
-            gc.fillOval(point.x - 2, point.y - 2, 4, 4);
-        }
-
-        // Draw towers
-        for (Tower tower : towers) {
-            tower.render(gc);
-        }
-
-        // Draw enemies
-        for (Enemy enemy : enemies) {
-            enemy.render(gc);
-        }
-
-        // Draw projectiles
-        for (Projectile projectile : projectiles) {
-            projectile.render(gc);
-        }
-        
-        // Draw preview tower if one is being placed
-        if (previewTower != null) {
-            renderPreviewTower(gc);
-        }
-
-        // Draw game stats
-        gc.setFill(Color.BLACK);
-        gc.fillText("Money: $" + money, 10, 20);
-        gc.fillText("Lives: " + lives, 10, 40);
-        gc.fillText("Score: " + score, 10, 60);
-        gc.fillText("Wave: " + currentWave, 10, 80);
-        
-        if (!waveInProgress && enemies.isEmpty()) {
-            gc.setFill(Color.GREEN);
-            gc.fillText("Wave " + (currentWave + 1) + " starts in " + 
-                       ((WAVE_BREAK_TIME - spawnCounter) / 60 + 1) + " seconds", 10, 100);
-        } else {
-            gc.fillText("Enemies: " + enemies.size() + "/" + enemiesPerWave, 10, 100);
-        }
-        
-        // Global buff UI indicator (shows remaining seconds)
-        if (globalBuffTimeRemaining > 0) {
-            gc.setFill(Color.GOLD);
-            try {
-                gc.fillText("Machine towers buffed! " + String.format("%.1f", globalBuffTimeRemaining) + "s", 10, 120);
-            } catch (Exception e) {
-                // Fallback if String.format fails
-                gc.fillText("Machine towers buffed! " + (int)Math.ceil(globalBuffTimeRemaining) + "s", 10, 120);
-            }
-        }
+        renderer.render(simulation, previewTower, previewX, previewY);
     }
 
     public void placeTower(double x, double y, String type) {
@@ -282,176 +143,75 @@ public class GameManager {
             x = previewX;
             y = previewY;
         }
-        
-        int cost = getTowerCost(type);
-        if (money >= cost) {
-            Tower tower = createTower(x, y, type);
-            if (isValidTowerPlacement(tower)) {
-                towers.add(tower);
-                money -= cost;
-            }
-        }
+
+        simulation.placeTower(x, y, type);
+        syncProperties();
     }
 
     public boolean deleteTower(double x, double y) {
-        Tower towerToRemove = null;
-        for (Tower tower : towers) {
-            double dx = tower.getX() - x;
-            double dy = tower.getY() - y;
-            double distance = Math.sqrt(dx * dx + dy * dy);
-            if (distance < tower.getSize()) {
-                towerToRemove = tower;
-                break;
-            }
-        }
-        
-        if (towerToRemove != null) {
-            towers.remove(towerToRemove);
-            // Refund 50% of the tower's cost
-            money += (int)(towerToRemove.getCost() * 0.5);
-            return true;
-        }
-        return false;
+        boolean sold = simulation.sellTowerAt(x, y);
+        syncProperties();
+        return sold;
     }
 
-    private Tower createTower(double x, double y, String type) {
-        return new Tower(x, y, type, gameCanvas.getWidth(), gameCanvas.getHeight());
+    public void selectTowerAt(double x, double y) {
+        simulation.selectTowerAt(x, y);
     }
 
-    private int getTowerCost(String type) {
-        switch(type.toLowerCase()) {
-            case "basic": return 50;
-            case "sniper": return 100;
-            case "machine": return 150;
-            default: return 999999; // Very high cost for invalid types
-        }
+    private void endGame() {
+        gameLoop.stop();
+        // Written by the leaderboard's background writer; the game-over screen tracks the future
+        scoreSubmission = leaderboardManager.submitScore(playerName, simulation.getScore());
+        writeFrameProfile();
+        gameOver.set(true);
+    }
+
+    /**
+     * Writes the per-wave phase timings of this game off the FX thread. The game
+     * loop has stopped, so nothing records into the profiler any more.
+     */
+    private void writeFrameProfile() {
+        FrameProfiler profiler = simulation.getProfiler();
+        profiler.finish();
+        Path file = Paths.get("frame-profile-" + LocalDateTime.now().format(PROFILE_FILE_TIME) + ".csv");
+        CompletableFuture.runAsync(() -> {
+            try {
+                profiler.writeWaveSummary(file);
+            } catch (IOException e) {
+                System.err.println("Could not write " + file + ": " + e.getMessage());
+            }
+        });
     }
 
-    public void selectTowerAt(double x, double y) {
-        // Deselect all towers first
-        for (Tower tower : towers) {
-            tower.setSelected(false);
-        }
-        
-        // Find and select the clicked tower
-        for (Tower tower : towers) {
-            double dx = tower.getX() - x;
-            double dy = tower.getY() - y;
-            double distance = Math.sqrt(dx * dx + dy * dy);
-            if (distance < tower.getSize()) {
-                tower.setSelected(true);
-                return;
-            }
-        }
+    /**
+     * Shows or hides the frame timing overlay (F3).
+     */
+    public void toggleDebugOverlay() {
+        renderer.setOverlayVisible(!renderer.isOverlayVisible());
     }
 
-    private boolean isValidTowerPlacement(Tower tower) {
-        // Check if the tower is on the path
-        for (PathPoint point : path) {
-            double dx = tower.getX() - point.x;
-            double dy = tower.getY() - point.y;
-            double distance = Math.sqrt(dx * dx + dy * dy);
-            if (distance < tower.getSize()) {
-                return false;
-            }
-        }
-        
-        // Check if the tower overlaps with other towers
-        for (Tower existingTower : towers) {
-            double dx = tower.getX() - existingTower.getX();
-            double dy = tower.getY() - existingTower.getY();
-            double distance = Math.sqrt(dx * dx + dy * dy);
-            if (distance < (tower.getSize() + existingTower.getSize())) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-
-    private void spawnEnemy() {
-        if (!path.isEmpty()) {
-            // Scale speed based on map size - this makes speed consistent across different screen sizes
-            double mapSizeScale = Math.min(gameCanvas.getWidth(), gameCanvas.getHeight()) / 1000.0; // baseline for 1000px
-            double baseSpeed = 100.0; // base speed in pixels per second
-            double scaledSpeed = baseSpeed * mapSizeScale;
-            
-            // Scale enemy health and reward based on wave number
-            double healthScaling = 100 * Math.pow(1.2, currentWave - 1); // Health increases by 20% each wave
-            int rewardScaling = (int)(10 * Math.pow(1.1, currentWave - 1)); // Reward increases by 10% each wave
-            
-            Enemy enemy = new Enemy(path, healthScaling, scaledSpeed, rewardScaling, gameCanvas.getWidth(), gameCanvas.getHeight());
-            
-            // Randomly assign special properties based on wave number, with increasing probability
-            double camoChance = Math.min(0.4, (currentWave - 5) * 0.05); // Max 40% chance
-            double armorChance = Math.min(0.5, (currentWave - 10) * 0.07); // Max 50% chance
-            double regenChance = Math.min(0.3, (currentWave - 15) * 0.04); // Max 30% chance
-            
-            // Track if enemy has any special property
-            boolean hasSpecialProperty = false;
-            
-            // Only apply special properties after certain waves
-            if (currentWave >= 5 && Math.random() < camoChance) {
-                enemy.setCamo(true);
-                healthScaling *= 0.8; // Camo enemies have less health
-                rewardScaling = (int)(rewardScaling * 1.5); // but give more reward
-                hasSpecialProperty = true;
-            }
-            
-            if (currentWave >= 10 && Math.random() < armorChance && !hasSpecialProperty) {
-                enemy.setArmored(true);
-                healthScaling *= 1.5; // Armored enemies have more health
-                rewardScaling = (int)(rewardScaling * 1.2); // and give slightly more reward
-                hasSpecialProperty = true;
-            }
-            
-            if (currentWave >= 15 && Math.random() < regenChance && !hasSpecialProperty) {
-                enemy.setRegenerating(true);
-                healthScaling *= 1.2; // Regenerating enemies have slightly more health
-                rewardScaling = (int)(rewardScaling * 1.3); // and give more reward
-            }
-            
-            // Create boss enemies at milestone waves
-            if (currentWave % 10 == 0) { // Every 10th wave is a boss wave
-                enemy.setArmored(true);
-                enemy.setRegenerating(true);
-                if (currentWave >= 20) { // Super boss at wave 20+
-                    enemy.setCamo(true);
-                }
-                healthScaling *= 3.0; // Boss enemies have much more health
-                rewardScaling *= 3; // and give much more reward
-            }
+    public boolean isDebugOverlayVisible() {
+        return renderer.isOverlayVisible();
+    }
 
-            // Only spawn the special power-up enemy in specific waves (once per those waves)
-            if ((currentWave == 13 || currentWave == 42) && !powerUpSpawnedThisWave) {
-                enemy.setPowerUp(true);
-                // Power-up enemies are weaker but grant more reward
-                healthScaling *= 0.7;
-                rewardScaling *= 2;
-                powerUpSpawnedThisWave = true;
-            }
-            
-            // Update enemy properties with the modified values
-            enemy.setHealth(healthScaling);
-            enemy.setReward(rewardScaling);
-            
-            enemies.add(enemy);
-        }
+    public boolean isGameOver() {
+        return gameOver.get();
     }
 
-    private void endGame() {
-        gameOver = true;
-        gameLoop.stop();
-        leaderboardManager.addScore(playerName, score);
-        leaderboardManager.saveScores();
+    public ReadOnlyBooleanProperty gameOverProperty() {
+        return gameOver.getReadOnlyProperty();
     }
 
-    public void showLeaderboard() {
-        leaderboardManager.loadScores();
+    /**
+     * Completes when the final score has been written to the leaderboard; null
+     * until the game is over.
+     */
+    public CompletableFuture<Void> getScoreSubmission() {
+        return scoreSubmission;
     }
 
-    public boolean isGameOver() {
-        return gameOver;
+    public GameSimulation getSimulation() {
+        return simulation;
     }
 
     public LeaderboardManager getLeaderboardManager() {
@@ -459,7 +219,7 @@ public class GameManager {
     }
 
     public int getScore() {
-        return score;
+        return simulation.getScore();
     }
 
     public String getPlayerName() {
@@ -467,31 +227,52 @@ public class GameManager {
     }
 
     public void setGameSpeed(double speed) {
-        this.gameSpeed = Math.max(0.1, Math.min(3.0, speed)); // Clamp between 0.1x and 3.0x
+        gameSpeed.set(speed);
     }
 
     public double getGameSpeed() {
+        return gameSpeed.get();
+    }
+
+    public DoubleProperty gameSpeedProperty() {
         return gameSpeed;
     }
 
     public int getMoney() {
-        return money;
+        return simulation.getMoney();
+    }
+
+    public ReadOnlyIntegerProperty moneyProperty() {
+        return money.getReadOnlyProperty();
     }
 
     public int getPlayerHealth() {
-        return lives;
+        return simulation.getLives();
+    }
+
+    public ReadOnlyIntegerProperty playerHealthProperty() {
+        return lives.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty scoreProperty() {
+        return score.getReadOnlyProperty();
     }
 
     public int getWaveNumber() {
-        return currentWave;
+        return simulation.getCurrentWave();
+    }
+
+    public ReadOnlyIntegerProperty waveNumberProperty() {
+        return wave.getReadOnlyProperty();
     }
-    
+
     // Preview tower methods
     public void startTowerPreview(String towerType) {
         this.previewTowerType = towerType;
-        this.previewTower = createTower(0, 0, towerType);
+        this.previewTower = simulation.createTower(0, 0, towerType);
+        previewActive.set(previewTower != null);
     }
-    
+
     public void updateTowerPreview(double x, double y) {
         this.previewX = x;
         this.previewY = y;
@@ -499,33 +280,18 @@ public class GameManager {
             previewTower.setPreviewPosition(x, y);
         }
     }
-    
+
     public void cancelTowerPreview() {
         this.previewTower = null;
         this.previewTowerType = null;
+        previewActive.set(false);
     }
-    
+
     public boolean isPreviewActive() {
         return previewTower != null;
     }
-    
-    private void renderPreviewTower(GraphicsContext gc) {
-        if (previewTower == null) return;
-        
-        // Draw semi-transparent tower
-        gc.setGlobalAlpha(0.5);
-        previewTower.render(gc);
-        gc.setGlobalAlpha(1.0);
-        
-        // Draw range circle with transparent fill
-        gc.setStroke(javafx.scene.paint.Color.LIGHTBLUE);
-        gc.setLineWidth(2);
-        gc.setGlobalAlpha(0.6);
-        gc.setFill(javafx.scene.paint.Color.color(0.5, 0.7, 1.0, 0.15)); // Semi-transparent light blue
-        double range = previewTower.getRange();
-        gc.fillOval(previewX - range, previewY - range, range * 2, range * 2);
-        gc.strokeOval(previewX - range, previewY - range, range * 2, range * 2);
-        gc.setGlobalAlpha(1.0);
-    }
-}
 
+    public ReadOnlyBooleanProperty previewActiveProperty() {
+        return previewActive.getReadOnlyProperty();
+    }
+}
\ No newline at end of file
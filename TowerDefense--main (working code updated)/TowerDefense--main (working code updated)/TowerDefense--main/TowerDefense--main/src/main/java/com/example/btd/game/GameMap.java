@@ -1,12 +1,9 @@
 package com.example.btd.game;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GameMap {
-    private Image backgroundImage;
     private List<PathPoint> path;
     private boolean[][] towerPlacementGrid;
     private static final int GRID_SIZE = 20; // Size of each grid cell
@@ -16,7 +13,6 @@ public class GameMap {
     public GameMap(double mapWidth, double mapHeight) {
         this.mapWidth = mapWidth;
         this.mapHeight = mapHeight;
-        backgroundImage = new Image(getClass().getResourceAsStream("/images/map_background.png"));
         initializePath();
         initializeTowerGrid();
     }
@@ -56,30 +52,6 @@ public class GameMap {
         }
     }
 
-    public void render(GraphicsContext gc) {
-    // Draw background
-    gc.drawImage(backgroundImage, 0, 0, mapWidth, mapHeight);
-        
-        // Draw path background
-        gc.setStroke(javafx.scene.paint.Color.BROWN);
-        double pathWidth = Math.min(mapWidth, mapHeight) * 0.05; // Scale path width with map size
-        gc.setLineWidth(pathWidth);
-        for (int i = 0; i < path.size() - 1; i++) {
-            PathPoint current = path.get(i);
-            PathPoint next = path.get(i + 1);
-            gc.strokeLine(current.x, current.y, next.x, next.y);
-        }
-        
-        // Draw path border
-        gc.setStroke(javafx.scene.paint.Color.YELLOW);
-        gc.setLineWidth(pathWidth * 0.1); // Border width is 10% of path width
-        for (int i = 0; i < path.size() - 1; i++) {
-            PathPoint current = path.get(i);
-            PathPoint next = path.get(i + 1);
-            gc.strokeLine(current.x, current.y, next.x, next.y);
-        }
-    }
-
     public boolean canPlaceTower(double x, double y) {
         // Check if too close to any path segment
         for (int i = 0; i < path.size() - 1; i++) {
@@ -0,0 +1,191 @@
+package com.example.btd.game;
+
+import java.lang.management.ManagementFactory;
+import javafx.application.Platform;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The GameMetricsMXBean of a session. It is registered once and follows whichever
+ * game is attached, so a monitoring client keeps one connection across restarts.
+ *
+ * Attributes are read from the JMX thread without locking: counters may be a frame
+ * behind the screen, but reading never blocks or slows the game. Operations are
+ * handed to the JavaFX thread, which owns the game.
+ */
+public class GameMetrics implements GameMetricsMXBean, AutoCloseable {
+    public static final String OBJECT_NAME = "com.example.btd:type=GameMetrics";
+
+    private volatile GameManager game;
+    private ObjectName registeredName;
+
+    /**
+     * Registers these metrics with the platform MBeanServer, replacing metrics an
+     * earlier session left behind. A failure is reported but does not stop the game.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            System.err.println("Could not register game metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes the metrics report the given game from now on.
+     */
+    public void attach(GameManager game) {
+        this.game = game;
+    }
+
+    @Override
+    public void close() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            // Already gone
+        }
+        registeredName = null;
+    }
+
+    private GameSimulation simulation() {
+        GameManager current = game;
+        return current == null ? null : current.getSimulation();
+    }
+
+    @Override
+    public int getWave() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getCurrentWave();
+    }
+
+    @Override
+    public int getScore() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getScore();
+    }
+
+    @Override
+    public int getLives() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getLives();
+    }
+
+    @Override
+    public int getMoney() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getMoney();
+    }
+
+    @Override
+    public boolean isGameOver() {
+        GameSimulation simulation = simulation();
+        return simulation != null && simulation.isGameOver();
+    }
+
+    @Override
+    public int getEnemyCount() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getEnemies().size();
+    }
+
+    @Override
+    public int getTowerCount() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getTowers().size();
+    }
+
+    @Override
+    public int getProjectileCount() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getProjectiles().getActiveCount();
+    }
+
+    @Override
+    public int getProjectileCapacity() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getProjectiles().getCapacity();
+    }
+
+    @Override
+    public long getDroppedProjectiles() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getProjectiles().getDroppedCount();
+    }
+
+    @Override
+    public int getTickRate() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : simulation.getProfiler().getTicks().getTicksInLastSecond();
+    }
+
+    @Override
+    public double getLastTickMillis() {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : FrameProfiler.millis(simulation.getProfiler().getTicks().getLastDuration());
+    }
+
+    @Override
+    public double getTickP50Millis() {
+        return tickPercentileMillis(0.50);
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return tickPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return tickPercentileMillis(1.0);
+    }
+
+    private double tickPercentileMillis(double fraction) {
+        GameSimulation simulation = simulation();
+        return simulation == null ? 0 : FrameProfiler.millis(simulation.getProfiler().getTicks().getPercentiles(fraction)[0]);
+    }
+
+    @Override
+    public int getPendingLeaderboardWrites() {
+        GameManager current = game;
+        return current == null ? 0 : current.getLeaderboardManager().getPendingScoreCount();
+    }
+
+    @Override
+    public double getGameSpeed() {
+        GameManager current = game;
+        return current == null ? 0 : current.getGameSpeed();
+    }
+
+    @Override
+    public void setGameSpeed(double speed) {
+        GameManager current = game;
+        if (current != null) {
+            Platform.runLater(() -> current.setGameSpeed(speed));
+        }
+    }
+
+    @Override
+    public boolean isDebugOverlayVisible() {
+        GameManager current = game;
+        return current != null && current.isDebugOverlayVisible();
+    }
+
+    @Override
+    public void toggleDebugOverlay() {
+        GameManager current = game;
+        if (current != null) {
+            Platform.runLater(current::toggleDebugOverlay);
+        }
+    }
+}
\ No newline at end of file
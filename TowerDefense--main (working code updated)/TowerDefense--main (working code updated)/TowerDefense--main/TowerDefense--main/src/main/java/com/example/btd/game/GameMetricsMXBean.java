@@ -0,0 +1,58 @@
+package com.example.btd.game;
+
+/**
+ * Live engine metrics and a few controls of the running game, registered with the
+ * platform MBeanServer as com.example.btd:type=GameMetrics so JConsole or any JMX
+ * client on a local connector can read them. Before the first game starts, every
+ * value is 0 (or false) and the operations do nothing.
+ *
+ * Tick times are in milliseconds. The rolling percentiles cover the last 1024
+ * ticks, about 8.5 seconds of play.
+ */
+public interface GameMetricsMXBean {
+    int getWave();
+    int getScore();
+    int getLives();
+    int getMoney();
+    boolean isGameOver();
+
+    int getEnemyCount();
+    int getTowerCount();
+    int getProjectileCount();
+    int getProjectileCapacity();
+
+    /**
+     * Shots dropped because the projectile pool was full, over the whole game.
+     */
+    long getDroppedProjectiles();
+
+    /**
+     * Simulation ticks run during the last second; 120 while the game keeps up at 1x speed.
+     */
+    int getTickRate();
+
+    double getLastTickMillis();
+    double getTickP50Millis();
+    double getTickP99Millis();
+    double getTickMaxMillis();
+
+    /**
+     * Game-over scores queued for the leaderboard writer but not yet stored.
+     */
+    int getPendingLeaderboardWrites();
+
+    double getGameSpeed();
+
+    /**
+     * Changes the game speed (clamped to 0.1x-3.0x) on the JavaFX thread. The
+     * speed slider follows.
+     */
+    void setGameSpeed(double speed);
+
+    boolean isDebugOverlayVisible();
+
+    /**
+     * Shows or hides the F3 frame timing overlay on the JavaFX thread.
+     */
+    void toggleDebugOverlay();
+}
\ No newline at end of file
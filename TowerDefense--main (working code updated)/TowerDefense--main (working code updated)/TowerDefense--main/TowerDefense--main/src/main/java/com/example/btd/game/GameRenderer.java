@@ -0,0 +1,305 @@
+package com.example.btd.game;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.List;
+
+/**
+ * Draws a GameSimulation onto three stacked canvases. All JavaFX drawing lives here
+ * so the simulation itself can run without the FX toolkit.
+ *
+ * The bottom layer holds the background image and path; it is rasterized once and
+ * again only after {@link #invalidateMapLayer()} (e.g. on resize). The middle layer
+ * holds the towers and is redrawn only when the simulation's tower version changes.
+ * The top layer holds enemies, projectiles, the placement preview and the HUD and
+ * is the only one cleared every frame.
+ */
+public class GameRenderer {
+    private final Image backgroundImage;
+    // Reused vertex buffers for the power-up marker
+    private final double[] markerX = new double[4];
+    private final double[] markerY = new double[4];
+
+    private final Canvas mapCanvas;
+    private final Canvas towerCanvas;
+    private final Canvas entityCanvas;
+    private final HudRenderer hudRenderer = new HudRenderer();
+    private final DebugOverlay debugOverlay = new DebugOverlay();
+    private boolean mapLayerDirty = true;
+    private boolean overlayVisible;
+    private long drawnTowerVersion = -1;
+
+    public GameRenderer(Canvas mapCanvas, Canvas towerCanvas, Canvas entityCanvas) {
+        this.mapCanvas = mapCanvas;
+        this.towerCanvas = towerCanvas;
+        this.entityCanvas = entityCanvas;
+        backgroundImage = new Image(getClass().getResourceAsStream("/images/map_background.png"));
+    }
+
+    /**
+     * Forces the static map layer to be rasterized again on the next frame.
+     */
+    public void invalidateMapLayer() {
+        mapLayerDirty = true;
+    }
+
+    /**
+     * Forces the tower layer to be redrawn on the next frame.
+     */
+    public void invalidateTowerLayer() {
+        drawnTowerVersion = -1;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public void setOverlayVisible(boolean visible) {
+        overlayVisible = visible;
+    }
+
+    /**
+     * Draws the current state. Moving entities are drawn between their previous and
+     * current tick positions according to the simulation's interpolation alpha.
+     */
+    public void render(GameSimulation simulation, Tower previewTower, double previewX, double previewY) {
+        FrameProfiler profiler = simulation.getProfiler();
+        // Both cached layers, the map and the towers, count as map render
+        long time = System.nanoTime();
+        if (mapLayerDirty) {
+            renderMapLayer(mapCanvas.getGraphicsContext2D(), simulation);
+            mapLayerDirty = false;
+        }
+        if (drawnTowerVersion != simulation.getTowerVersion()) {
+            boolean complete = renderTowerLayer(towerCanvas.getGraphicsContext2D(), simulation);
+            // Keep redrawing while a preloaded sprite is still decoding
+            drawnTowerVersion = complete ? simulation.getTowerVersion() : -1;
+        }
+        time = profiler.record(FrameProfiler.Phase.MAP_RENDER, time);
+
+        GraphicsContext gc = entityCanvas.getGraphicsContext2D();
+        renderEntityLayer(gc, simulation, previewTower, previewX, previewY);
+        time = profiler.record(FrameProfiler.Phase.ENTITY_RENDER, time);
+
+        hudRenderer.render(gc, simulation);
+        profiler.record(FrameProfiler.Phase.HUD, time);
+
+        if (overlayVisible) {
+            debugOverlay.render(gc, simulation, entityCanvas.getWidth());
+        }
+    }
+
+    private void renderMapLayer(GraphicsContext gc, GameSimulation simulation) {
+        gc.clearRect(0, 0, mapCanvas.getWidth(), mapCanvas.getHeight());
+
+        // Draw the map
+        renderMap(gc, simulation.getMap());
+
+        // Draw path points for debugging
+        gc.setFill(Color.RED);
+        for (PathPoint point : simulation.getPath()) {
+            gc.fillOval(point.x - 2, point.y - 2, 4, 4);
+        }
+    }
+
+    private boolean renderTowerLayer(GraphicsContext gc, GameSimulation simulation) {
+        gc.clearRect(0, 0, towerCanvas.getWidth(), towerCanvas.getHeight());
+
+        // Draw towers
+        boolean complete = true;
+        for (Tower tower : simulation.getTowers()) {
+            complete &= renderTower(gc, tower);
+        }
+        return complete;
+    }
+
+    private void renderEntityLayer(GraphicsContext gc, GameSimulation simulation,
+                                   Tower previewTower, double previewX, double previewY) {
+        double alpha = simulation.getInterpolationAlpha();
+
+        // Clear the canvas
+        gc.clearRect(0, 0, entityCanvas.getWidth(), entityCanvas.getHeight());
+
+        // Draw enemies
+        EnemyStore enemies = simulation.getEnemies();
+        for (int slot = 0; slot < enemies.size(); slot++) {
+            renderEnemy(gc, enemies, slot, alpha);
+        }
+
+        // Draw projectiles
+        ProjectilePool projectiles = simulation.getProjectiles();
+        for (int i = 0; i < projectiles.getActiveCount(); i++) {
+            renderProjectile(gc, projectiles, i, alpha);
+        }
+
+        // Draw preview tower if one is being placed
+        if (previewTower != null) {
+            renderPreviewTower(gc, previewTower, previewX, previewY);
+        }
+    }
+
+    private void renderMap(GraphicsContext gc, GameMap map) {
+        double mapWidth = map.getWidth();
+        double mapHeight = map.getHeight();
+
+        // Draw background
+        gc.drawImage(backgroundImage, 0, 0, mapWidth, mapHeight);
+
+        // Draw path background
+        gc.setStroke(Color.BROWN);
+        double pathWidth = Math.min(mapWidth, mapHeight) * 0.05; // Scale path width with map size
+        gc.setLineWidth(pathWidth);
+        strokePath(gc, map);
+
+        // Draw path border
+        gc.setStroke(Color.YELLOW);
+        gc.setLineWidth(pathWidth * 0.1); // Border width is 10% of path width
+        strokePath(gc, map);
+    }
+
+    private void strokePath(GraphicsContext gc, GameMap map) {
+        List<PathPoint> path = map.getPath();
+        for (int i = 0; i < path.size() - 1; i++) {
+            PathPoint current = path.get(i);
+            PathPoint next = path.get(i + 1);
+            gc.strokeLine(current.x, current.y, next.x, next.y);
+        }
+    }
+
+    /**
+     * Draws one tower; returns false if its sprite had not finished loading yet.
+     */
+    private boolean renderTower(GraphicsContext gc, Tower tower) {
+        double x = tower.getX();
+        double y = tower.getY();
+        double range = tower.getRange();
+        double towerSize = tower.getSize();
+
+        // Draw range circle only when selected
+        if (tower.isSelected()) {
+            gc.setLineWidth(2);
+            gc.setStroke(Color.GREY); // Grey outline
+            gc.strokeOval(x - range, y - range, range * 2, range * 2);
+        }
+
+        // Draw buff indicator (gold halo) when buffed
+        if (tower.isBuffed()) {
+            gc.setStroke(Color.GOLD);
+            gc.setLineWidth(3);
+            gc.strokeOval(x - towerSize/2 - 4, y - towerSize/2 - 4, towerSize + 8, towerSize + 8);
+        }
+
+        // Draw tower sprite
+        Image sprite = SpriteCache.getTowerSprite(tower.getType(), towerSize);
+        gc.drawImage(sprite, x - towerSize / 2, y - towerSize / 2, towerSize, towerSize);
+        return sprite.getProgress() >= 1.0;
+    }
+
+    private void renderEnemy(GraphicsContext gc, EnemyStore enemies, int slot, double alpha) {
+        if (enemies.isDead(slot)) return;
+
+        double x = interpolate(enemies.getPrevX(slot), enemies.getX(slot), alpha);
+        double y = interpolate(enemies.getPrevY(slot), enemies.getY(slot), alpha);
+        double enemySize = enemies.getSize();
+
+        // Draw the enemy as a colored circle
+        gc.setFill(getEnemyColor(enemies.getAppearance(slot)));
+        gc.fillOval(x - enemySize / 2, y - enemySize / 2, enemySize, enemySize);
+
+        // Highlight power-up enemies with a gold star outline
+        if (enemies.hasFlag(slot, EnemyStore.FLAG_POWER_UP)) {
+            gc.setStroke(Color.GOLD);
+            gc.setLineWidth(2);
+            double s = enemySize * 0.6;
+            // simple diamond/star-like marker
+            markerX[0] = x;       markerY[0] = y - s/2;
+            markerX[1] = x + s/2; markerY[1] = y;
+            markerX[2] = x;       markerY[2] = y + s/2;
+            markerX[3] = x - s/2; markerY[3] = y;
+            gc.strokePolygon(markerX, markerY, 4);
+        }
+
+        // Draw patterns for special types
+        if (enemies.hasFlag(slot, EnemyStore.FLAG_ARMORED)) {
+            gc.setStroke(Color.SILVER);
+            gc.setLineWidth(2);
+            gc.strokeOval(x - enemySize / 2, y - enemySize / 2, enemySize, enemySize);
+        }
+        if (enemies.hasFlag(slot, EnemyStore.FLAG_CAMO)) {
+            gc.setStroke(Color.DARKGREEN);
+            gc.setLineWidth(1);
+            gc.strokeLine(x - enemySize/2, y - enemySize/2, x + enemySize/2, y + enemySize/2);
+            gc.strokeLine(x - enemySize/2, y + enemySize/2, x + enemySize/2, y - enemySize/2);
+        }
+
+        // Draw health bar
+        double healthBarWidth = enemySize * 1.2; // Health bar slightly wider than enemy
+        double healthPercent = enemies.getHealth(slot) / enemies.getMaxHealth(slot);
+
+        // Draw health bar background (red)
+        gc.setFill(Color.RED);
+        gc.fillRect(x - healthBarWidth/2, y - enemySize/2 - 10,
+                   healthBarWidth, 5);
+
+        // Draw current health (color based on type)
+        gc.setFill(enemies.hasFlag(slot, EnemyStore.FLAG_REGENERATING) ? Color.PINK : Color.GREEN);
+        gc.fillRect(x - healthBarWidth/2, y - enemySize/2 - 10,
+                   healthBarWidth * healthPercent, 5);
+    }
+
+    private Color getEnemyColor(int appearance) {
+        switch (appearance) {
+            case EnemyStore.APPEARANCE_ARMORED: return Color.GRAY;
+            case EnemyStore.APPEARANCE_CAMO: return Color.LIGHTGREEN;
+            case EnemyStore.APPEARANCE_REGENERATING: return Color.PINK;
+            case EnemyStore.APPEARANCE_POWER_UP: return Color.GOLD;
+            default: return Color.RED;
+        }
+    }
+
+    private void renderProjectile(GraphicsContext gc, ProjectilePool projectiles, int index, double alpha) {
+        double x = interpolate(projectiles.getPrevX(index), projectiles.getX(index), alpha);
+        double y = interpolate(projectiles.getPrevY(index), projectiles.getY(index), alpha);
+        double size = projectiles.getSize(index);
+
+        gc.setFill(getProjectileColor(projectiles.getStyle(index)));
+        gc.fillOval(x - size/2, y - size/2, size, size);
+
+        // Draw trail
+        gc.setGlobalAlpha(0.3);
+        gc.fillOval(x - size*1.5, y - size*1.5, size*3, size*3);
+        gc.setGlobalAlpha(1.0);
+    }
+
+    private static double interpolate(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+
+    private Color getProjectileColor(int style) {
+        switch (style) {
+            case ProjectilePool.STYLE_RAPID: return Color.LIGHTGREEN; // Rapid fire tower
+            case ProjectilePool.STYLE_HEAVY: return Color.RED; // High damage tower
+            default: return Color.CYAN; // Basic tower
+        }
+    }
+
+    private void renderPreviewTower(GraphicsContext gc, Tower previewTower, double previewX, double previewY) {
+        // Draw semi-transparent tower
+        gc.setGlobalAlpha(0.5);
+        renderTower(gc, previewTower);
+        gc.setGlobalAlpha(1.0);
+
+        // Draw range circle with transparent fill
+        gc.setStroke(Color.LIGHTBLUE);
+        gc.setLineWidth(2);
+        gc.setGlobalAlpha(0.6);
+        gc.setFill(Color.color(0.5, 0.7, 1.0, 0.15)); // Semi-transparent light blue
+        double range = previewTower.getRange();
+        gc.fillOval(previewX - range, previewY - range, range * 2, range * 2);
+        gc.strokeOval(previewX - range, previewY - range, range * 2, range * 2);
+        gc.setGlobalAlpha(1.0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,518 @@
+package com.example.btd.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The game rules without any JavaFX dependency: waves, enemies, towers, projectiles,
+ * money, lives and score. GameManager drives it from the AnimationTimer and draws
+ * its state; tests and balance runs can call {@link #tick(double)} directly and run
+ * the same logic as fast as the CPU allows.
+ */
+public class GameSimulation {
+    private final double width;
+    private final double height;
+    private final GameMap gameMap;
+    private final List<PathPoint> path;
+    private final List<Tower> towers;
+    private final EnemyStore enemies;
+    private final ProjectilePool projectiles;
+    private final Random random;
+    private final EnemyGrid enemyGrid;
+    private final TowerTargeting targeting = new TowerTargeting();
+    private final FrameProfiler profiler = new FrameProfiler();
+    // Read-only views handed out to renderers, created once so queries don't allocate
+    private final List<PathPoint> pathView;
+    private final List<Tower> towersView;
+
+    private int money;
+    private int lives;
+    private int score;
+    private double spawnTimer; // simulated seconds since the last spawn or wave end
+    private double accumulator; // simulated seconds not yet consumed by a whole tick
+    private boolean gameOver;
+    private int currentWave;
+    private int enemiesRemainingInWave;
+    private int totalEnemiesSpawned;
+    private boolean waveInProgress;
+    private int enemiesPerWave;
+    private long towerVersion; // bumped whenever anything drawn for a tower changes
+
+    private static final int STARTING_MONEY = 200; // Enough for 1 advanced tower or multiple basic towers
+    private static final int STARTING_LIVES = 50; // More forgiving number of lives
+    private static final double ENEMY_SPAWN_DELAY = 1.0; // seconds between spawns
+    private static final int INITIAL_ENEMIES_PER_WAVE = 5; // Start with 5 enemies in wave 1
+    private static final int ENEMIES_INCREASE_PER_WAVE = 3; // Add 3 more enemies each wave
+    private static final double WAVE_BREAK_TIME = 5.0; // Time between waves (in seconds)
+    private static final double BUFF_DURATION = 7.0; // seconds to buff machine towers
+    // Track whether the special power-up enemy has been spawned this wave
+    private boolean powerUpSpawnedThisWave = false;
+    // Global buff timer for UI display (seconds remaining)
+    private double globalBuffTimeRemaining = 0.0;
+
+    // Fixed simulation step: the game advances in whole ticks of this length regardless of frame rate
+    public static final int TICKS_PER_SECOND = 120;
+    public static final double TICK_SECONDS = 1.0 / TICKS_PER_SECOND;
+
+    public GameSimulation(double width, double height) {
+        this(width, height, new Random());
+    }
+
+    /**
+     * Creates a simulation whose special enemy rolls come from the given random source,
+     * so a seeded Random replays the exact same game.
+     */
+    public GameSimulation(double width, double height, Random random) {
+        this(width, height, random, ProjectilePool.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Same as above with a custom projectile pool size; shots beyond it are dropped.
+     */
+    public GameSimulation(double width, double height, Random random, int projectileCapacity) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.gameMap = new GameMap(width, height);
+        this.path = new ArrayList<>(gameMap.getPath());
+        this.towers = new ArrayList<>();
+        this.enemies = new EnemyStore(path, height);
+        this.projectiles = new ProjectilePool(projectileCapacity);
+        this.enemyGrid = new EnemyGrid(width, height);
+        this.pathView = Collections.unmodifiableList(path);
+        this.towersView = Collections.unmodifiableList(towers);
+
+        money = STARTING_MONEY;
+        lives = STARTING_LIVES;
+        score = 0;
+        spawnTimer = 0;
+        accumulator = 0;
+        gameOver = false;
+        currentWave = 1;
+        startNewWave();
+    }
+
+    private void startNewWave() {
+        enemiesPerWave = INITIAL_ENEMIES_PER_WAVE + (currentWave - 1) * ENEMIES_INCREASE_PER_WAVE;
+        enemiesRemainingInWave = enemiesPerWave;
+        totalEnemiesSpawned = 0;
+        waveInProgress = true;
+        spawnTimer = 0;
+        powerUpSpawnedThisWave = false;
+        profiler.startWave(currentWave);
+        GameEvents.waveStarted(currentWave, enemiesPerWave);
+    }
+
+    /**
+     * Feeds elapsed simulated time into the fixed-step accumulator and runs as many
+     * whole ticks as it covers. The remainder carries over to the next call, so the
+     * outcome depends only on total time, not on how it was sliced into frames.
+     * Returns the number of ticks run.
+     */
+    public int advance(double seconds) {
+        accumulator += seconds;
+        int ticks = 0;
+        while (accumulator >= TICK_SECONDS) {
+            tick(TICK_SECONDS);
+            accumulator -= TICK_SECONDS;
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * How far (0..1) the accumulator is into the next tick, for interpolating
+     * positions between the previous and current tick when drawing.
+     */
+    public double getInterpolationAlpha() {
+        return accumulator / TICK_SECONDS;
+    }
+
+    /**
+     * Advances the game by one step of deltaTime simulated seconds.
+     * Normally called through {@link #advance(double)} with TICK_SECONDS.
+     */
+    public void tick(double deltaTime) {
+        if (gameOver) return;
+
+        // Null unless a flight recording is taking TickCompleted events
+        GameEvents.TickCompleted tickEvent = GameEvents.beginTick();
+        long start = System.nanoTime();
+        updateWaves(deltaTime);
+        long spawnEnd = profiler.record(FrameProfiler.Phase.SPAWN, start);
+        updateEnemies(deltaTime);
+        long enemiesEnd = profiler.record(FrameProfiler.Phase.ENEMY_UPDATE, spawnEnd);
+        updateTowers(deltaTime);
+        long towersEnd = profiler.record(FrameProfiler.Phase.TARGETING, enemiesEnd);
+        updateProjectiles(deltaTime);
+        long end = profiler.record(FrameProfiler.Phase.PROJECTILES, towersEnd);
+        profiler.recordTick(start, end);
+        if (tickEvent != null) {
+            GameEvents.endTick(tickEvent, this, spawnEnd - start, enemiesEnd - spawnEnd,
+                towersEnd - enemiesEnd, end - towersEnd);
+        }
+    }
+
+    private void updateWaves(double deltaTime) {
+        // Update global buff timer
+        if (globalBuffTimeRemaining > 0) {
+            globalBuffTimeRemaining = Math.max(0.0, globalBuffTimeRemaining - deltaTime);
+        }
+
+        // Handle wave progression
+        spawnTimer += deltaTime;
+        if (waveInProgress) {
+            if (spawnTimer >= ENEMY_SPAWN_DELAY && totalEnemiesSpawned < enemiesPerWave) {
+                spawnEnemy();
+                spawnTimer -= ENEMY_SPAWN_DELAY;
+                totalEnemiesSpawned++;
+            }
+        } else {
+            if (spawnTimer >= WAVE_BREAK_TIME && enemies.isEmpty()) {
+                currentWave++;
+                startNewWave();
+            }
+        }
+
+        // Check if wave is complete
+        if (waveInProgress && totalEnemiesSpawned >= enemiesPerWave && enemies.isEmpty()) {
+            waveInProgress = false;
+            spawnTimer = 0;
+            GameEvents.waveCompleted(currentWave, lives, money, score);
+        }
+    }
+
+    private void updateEnemies(double deltaTime) {
+        // Update enemies, then drop the ones that leaked or died (swap-remove, so
+        // the slot is re-checked after the last enemy has been moved into it)
+        enemies.updateAll(deltaTime);
+        int slot = 0;
+        while (slot < enemies.size()) {
+            if (enemies.hasReachedEnd(slot)) {
+                lives--;
+                GameEvents.enemyLeaked(currentWave, enemies.getHealth(slot), lives);
+                enemies.remove(slot);
+                if (lives <= 0) {
+                    gameOver = true;
+                }
+            } else if (enemies.isDead(slot)) {
+                // If this was a power-up enemy, apply buff to all machine towers
+                if (enemies.hasFlag(slot, EnemyStore.FLAG_POWER_UP)) {
+                    // Index loop: runs every tick, must not allocate
+                    for (int i = 0; i < towers.size(); i++) {
+                        towers.get(i).applyBuff(BUFF_DURATION);
+                    }
+                    towerVersion++;
+                    // start global buff timer for UI
+                    globalBuffTimeRemaining = BUFF_DURATION;
+                }
+                money += enemies.getReward(slot);
+                score += enemies.getReward(slot);
+                enemies.remove(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    private void updateTowers(double deltaTime) {
+        // Bucket the surviving enemies so towers only scan nearby cells
+        enemyGrid.rebuild(enemies);
+
+        // Read phase: each tower updates its timers and picks a target, in parallel on
+        // large boards, without touching anything shared
+        targeting.run(towers, enemies, enemyGrid, deltaTime);
+
+        // Apply phase, in tower order so the projectile pool fills the same way every time.
+        // Index loop: runs every tick, must not allocate
+        for (int i = 0; i < towers.size(); i++) {
+            if (targeting.isBuffChanged(i)) {
+                towerVersion++;
+            }
+            int target = targeting.getShotTarget(i);
+            if (target >= 0) {
+                Tower tower = towers.get(i);
+                GameEvents.towerFired(tower, enemies.getHealth(target));
+                tower.fireAt(enemies, target, projectiles);
+            }
+        }
+    }
+
+    private void updateProjectiles(double deltaTime) {
+        // Update projectiles and check for collisions; released projectiles are
+        // replaced by the last active one, so the same index is checked again
+        int index = 0;
+        while (index < projectiles.getActiveCount()) {
+            boolean arrived = projectiles.update(index, deltaTime);
+            double x = projectiles.getX(index);
+            double y = projectiles.getY(index);
+
+            // Check if the projectile hits any enemy; the grid only tests enemies near it
+            int hit = enemyGrid.findFirstHit(x, y, projectiles.getSize(index));
+            if (hit >= 0) {
+                enemies.takeDamage(hit, projectiles.getDamage(index));
+            }
+
+            // Return projectiles that hit something, missed at their target point or
+            // are out of bounds to the pool
+            if (hit >= 0 || arrived || !isInBounds(x, y)) {
+                projectiles.release(index);
+            } else {
+                index++;
+            }
+        }
+    }
+
+    private boolean isInBounds(double x, double y) {
+        return x >= 0 && x <= width && y >= 0 && y <= height;
+    }
+
+    // Commands
+
+    /**
+     * Buys and places a tower if the player can afford it and the spot is free.
+     * Returns true if the tower was placed.
+     */
+    public boolean placeTower(double x, double y, String type) {
+        int cost = getTowerCost(type);
+        if (money >= cost) {
+            Tower tower = createTower(x, y, type);
+            if (isValidTowerPlacement(tower)) {
+                towers.add(tower);
+                money -= cost;
+                towerVersion++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sells the tower under (x, y) for a 50% refund. Returns true if a tower was sold.
+     */
+    public boolean sellTowerAt(double x, double y) {
+        Tower towerToRemove = findTowerAt(x, y);
+        if (towerToRemove != null) {
+            towers.remove(towerToRemove);
+            towerVersion++;
+            // Refund 50% of the tower's cost
+            money += (int)(towerToRemove.getCost() * 0.5);
+            return true;
+        }
+        return false;
+    }
+
+    public void selectTowerAt(double x, double y) {
+        // Deselect all towers first
+        for (Tower tower : towers) {
+            tower.setSelected(false);
+        }
+
+        // Find and select the clicked tower
+        Tower clicked = findTowerAt(x, y);
+        if (clicked != null) {
+            clicked.setSelected(true);
+        }
+        towerVersion++;
+    }
+
+    public Tower createTower(double x, double y, String type) {
+        return new Tower(x, y, type, width, height);
+    }
+
+    private Tower findTowerAt(double x, double y) {
+        for (Tower tower : towers) {
+            double dx = tower.getX() - x;
+            double dy = tower.getY() - y;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance < tower.getSize()) {
+                return tower;
+            }
+        }
+        return null;
+    }
+
+    private int getTowerCost(String type) {
+        switch(type.toLowerCase()) {
+            case "basic": return 50;
+            case "sniper": return 100;
+            case "machine": return 150;
+            default: return 999999; // Very high cost for invalid types
+        }
+    }
+
+    private boolean isValidTowerPlacement(Tower tower) {
+        // Check if the tower is on the path
+        for (PathPoint point : path) {
+            double dx = tower.getX() - point.x;
+            double dy = tower.getY() - point.y;
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance < tower.getSize()) {
+                return false;
+            }
+        }
+
+        // Check if the tower overlaps with other towers
+        for (Tower existingTower : towers) {
+            double dx = tower.getX() - existingTower.getX();
+            double dy = tower.getY() - existingTower.getY();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance < (tower.getSize() + existingTower.getSize())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Package-private so benchmarks can measure a single spawn
+    void spawnEnemy() {
+        if (!path.isEmpty()) {
+            // Scale speed based on map size - this makes speed consistent across different screen sizes
+            double mapSizeScale = Math.min(width, height) / 1000.0; // baseline for 1000px
+            double baseSpeed = 100.0; // base speed in pixels per second
+            double scaledSpeed = baseSpeed * mapSizeScale;
+
+            // Scale enemy health and reward based on wave number
+            double healthScaling = 100 * Math.pow(1.2, currentWave - 1); // Health increases by 20% each wave
+            int rewardScaling = (int)(10 * Math.pow(1.1, currentWave - 1)); // Reward increases by 10% each wave
+
+            // Special properties as EnemyStore flag bits; the appearance is the last one applied
+            int flags = 0;
+            int appearance = EnemyStore.APPEARANCE_NORMAL;
+
+            // Randomly assign special properties based on wave number, with increasing probability
+            double camoChance = Math.min(0.4, (currentWave - 5) * 0.05); // Max 40% chance
+            double armorChance = Math.min(0.5, (currentWave - 10) * 0.07); // Max 50% chance
+            double regenChance = Math.min(0.3, (currentWave - 15) * 0.04); // Max 30% chance
+
+            // Track if enemy has any special property
+            boolean hasSpecialProperty = false;
+
+            // Only apply special properties after certain waves
+            if (currentWave >= 5 && random.nextDouble() < camoChance) {
+                flags |= EnemyStore.FLAG_CAMO;
+                appearance = EnemyStore.APPEARANCE_CAMO;
+                healthScaling *= 0.8; // Camo enemies have less health
+                rewardScaling = (int)(rewardScaling * 1.5); // but give more reward
+                hasSpecialProperty = true;
+            }
+
+            if (currentWave >= 10 && random.nextDouble() < armorChance && !hasSpecialProperty) {
+                flags |= EnemyStore.FLAG_ARMORED;
+                appearance = EnemyStore.APPEARANCE_ARMORED;
+                healthScaling *= 1.5; // Armored enemies have more health
+                rewardScaling = (int)(rewardScaling * 1.2); // and give slightly more reward
+                hasSpecialProperty = true;
+            }
+
+            if (currentWave >= 15 && random.nextDouble() < regenChance && !hasSpecialProperty) {
+                flags |= EnemyStore.FLAG_REGENERATING;
+                appearance = EnemyStore.APPEARANCE_REGENERATING;
+                healthScaling *= 1.2; // Regenerating enemies have slightly more health
+                rewardScaling = (int)(rewardScaling * 1.3); // and give more reward
+            }
+
+            // Create boss enemies at milestone waves
+            if (currentWave % 10 == 0) { // Every 10th wave is a boss wave
+                flags |= EnemyStore.FLAG_ARMORED | EnemyStore.FLAG_REGENERATING;
+                appearance = EnemyStore.APPEARANCE_REGENERATING;
+                if (currentWave >= 20) { // Super boss at wave 20+
+                    flags |= EnemyStore.FLAG_CAMO;
+                    appearance = EnemyStore.APPEARANCE_CAMO;
+                }
+                healthScaling *= 3.0; // Boss enemies have much more health
+                rewardScaling *= 3; // and give much more reward
+            }
+
+            // Only spawn the special power-up enemy in specific waves (once per those waves)
+            if ((currentWave == 13 || currentWave == 42) && !powerUpSpawnedThisWave) {
+                flags |= EnemyStore.FLAG_POWER_UP;
+                appearance = EnemyStore.APPEARANCE_POWER_UP;
+                // Power-up enemies are weaker but grant more reward
+                healthScaling *= 0.7;
+                rewardScaling *= 2;
+                powerUpSpawnedThisWave = true;
+            }
+
+            enemies.spawn(healthScaling, scaledSpeed, rewardScaling, flags, appearance);
+            GameEvents.enemySpawned(currentWave, healthScaling, rewardScaling, flags);
+        }
+    }
+
+    // Hooks for benchmarks and stress scenarios, which build large game states directly
+
+    /**
+     * Jumps straight to the start of the given wave, as if the earlier ones had been played.
+     */
+    void startWave(int wave) {
+        currentWave = wave;
+        startNewWave();
+    }
+
+    /**
+     * Adds a tower without charging for it or checking where it stands.
+     */
+    void addTower(Tower tower) {
+        towers.add(tower);
+        towerVersion++;
+    }
+
+    /**
+     * Sets the remaining lives, e.g. so a stress run is not ended by leaking enemies.
+     */
+    void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    /**
+     * Sets the tower count from which targeting runs on the fork/join pool, e.g.
+     * Integer.MAX_VALUE to measure the sequential path on a large board.
+     */
+    void setParallelTargetingThreshold(int towers) {
+        targeting.setParallelThreshold(towers);
+    }
+
+    // State queries
+
+    public boolean isGameOver() { return gameOver; }
+    public int getMoney() { return money; }
+    public int getLives() { return lives; }
+    public int getScore() { return score; }
+    public int getCurrentWave() { return currentWave; }
+    public int getEnemiesPerWave() { return enemiesPerWave; }
+    public boolean isWaveInProgress() { return waveInProgress; }
+    public double getGlobalBuffTimeRemaining() { return globalBuffTimeRemaining; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public GameMap getMap() { return gameMap; }
+
+    /**
+     * Changes whenever a tower is placed, sold, selected or its buff starts or ends,
+     * so a renderer can cache the tower layer until this value moves.
+     */
+    public long getTowerVersion() { return towerVersion; }
+
+    // Tick and frame phase timings; GameRenderer records the drawing phases here too
+    FrameProfiler getProfiler() { return profiler; }
+
+    /**
+     * Projectile/enemy pairs that reached the narrow-phase collision test during
+     * the last tick, to confirm the broadphase is doing its job.
+     */
+    public long getCollisionPairsTested() { return enemyGrid.getHitPairsTested(); }
+
+    /**
+     * Whole seconds until the next wave starts, for the break between waves.
+     */
+    public int getWaveBreakSecondsRemaining() {
+        return (int) (WAVE_BREAK_TIME - spawnTimer) + 1;
+    }
+
+    public List<PathPoint> getPath() { return pathView; }
+    public List<Tower> getTowers() { return towersView; }
+    public EnemyStore getEnemies() { return enemies; }
+    public ProjectilePool getProjectiles() { return projectiles; }
+}
\ No newline at end of file
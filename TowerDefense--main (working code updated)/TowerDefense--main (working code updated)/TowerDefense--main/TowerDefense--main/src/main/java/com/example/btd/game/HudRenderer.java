@@ -0,0 +1,105 @@
+package com.example.btd.game;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws the text HUD in the top-left corner of the entity layer.
+ *
+ * Each line keeps the values it was last formatted with and the resulting string,
+ * and only rebuilds the string (into a reused StringBuilder) when one of those
+ * values changes. While the game state is stable, drawing the HUD allocates nothing.
+ */
+class HudRenderer {
+    private final Line moneyLine = new Line("Money: $", null, null);
+    private final Line livesLine = new Line("Lives: ", null, null);
+    private final Line scoreLine = new Line("Score: ", null, null);
+    private final Line waveLine = new Line("Wave: ", null, null);
+    private final Line countdownLine = new Line("Wave ", " starts in ", " seconds");
+    private final Line enemiesLine = new Line("Enemies: ", "/", null);
+    private final Line buffLine = new Line("Machine towers buffed! ", null, "s");
+
+    void render(GraphicsContext gc, GameSimulation simulation) {
+        // Draw game stats
+        gc.setFill(Color.BLACK);
+        gc.fillText(moneyLine.format(simulation.getMoney()), 10, 20);
+        gc.fillText(livesLine.format(simulation.getLives()), 10, 40);
+        gc.fillText(scoreLine.format(simulation.getScore()), 10, 60);
+        gc.fillText(waveLine.format(simulation.getCurrentWave()), 10, 80);
+
+        if (!simulation.isWaveInProgress() && simulation.getEnemies().isEmpty()) {
+            gc.setFill(Color.GREEN);
+            gc.fillText(countdownLine.format(simulation.getCurrentWave() + 1,
+                    simulation.getWaveBreakSecondsRemaining()), 10, 100);
+        } else {
+            gc.fillText(enemiesLine.format(simulation.getEnemies().size(), simulation.getEnemiesPerWave()), 10, 100);
+        }
+
+        // Global buff UI indicator (shows remaining seconds to one decimal)
+        double buffTimeRemaining = simulation.getGlobalBuffTimeRemaining();
+        if (buffTimeRemaining > 0) {
+            gc.setFill(Color.GOLD);
+            gc.fillText(buffLine.formatTenths(Math.round(buffTimeRemaining * 10)), 10, 120);
+        }
+    }
+
+    /**
+     * One HUD line of the form prefix + first [+ separator + second] [+ suffix].
+     */
+    private static final class Line {
+        private final String prefix;
+        private final String separator;
+        private final String suffix;
+        private final StringBuilder builder = new StringBuilder(48);
+        private long first;
+        private long second;
+        private boolean tenths;
+        private String text;
+
+        Line(String prefix, String separator, String suffix) {
+            this.prefix = prefix;
+            this.separator = separator;
+            this.suffix = suffix;
+        }
+
+        String format(long value) {
+            return format(value, 0, false);
+        }
+
+        String format(long first, long second) {
+            return format(first, second, false);
+        }
+
+        /**
+         * Formats a value given in tenths as a decimal with one fractional digit.
+         */
+        String formatTenths(long tenths) {
+            return format(tenths, 0, true);
+        }
+
+        private String format(long first, long second, boolean tenths) {
+            if (text != null && first == this.first && second == this.second && tenths == this.tenths) {
+                return text;
+            }
+            this.first = first;
+            this.second = second;
+            this.tenths = tenths;
+
+            builder.setLength(0);
+            builder.append(prefix);
+            if (tenths) {
+                builder.append(first / 10).append('.').append(Math.abs(first % 10));
+            } else {
+                builder.append(first);
+            }
+            if (separator != null) {
+                builder.append(separator).append(second);
+            }
+            if (suffix != null) {
+                builder.append(suffix);
+            }
+            text = builder.toString();
+            return text;
+        }
+    }
+}
\ No newline at end of file
@@ -1,16 +1,23 @@
 package com.example.btd.game;
 
 public class LeaderboardEntry {
+    private long id;
     private String playerName;
     private int score;
     private java.sql.Timestamp date;
 
     public LeaderboardEntry(String playerName, int score, java.sql.Timestamp date) {
+        this(0, playerName, score, date);
+    }
+
+    public LeaderboardEntry(long id, String playerName, int score, java.sql.Timestamp date) {
+        this.id = id;
         this.playerName = playerName;
         this.score = score;
         this.date = date;
     }
 
+    public long getId() { return id; }
     public String getPlayerName() { return playerName; }
     public int getScore() { return score; }
     public java.sql.Timestamp getDate() { return date; }
@@ -1,112 +1,390 @@
 package com.example.btd.game;
 
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.Statement;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import javafx.scene.control.Alert;
-import javafx.scene.control.TextArea;
-import javafx.scene.layout.VBox;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class LeaderboardManager {
-    private static final String DB_URL = "jdbc:sqlite:leaderboard.db";
-    private List<LeaderboardEntry> cachedScores;
+/**
+ * Records and reads leaderboard scores through a ScoreStore.
+ *
+ * Two stores are available: SqliteScoreStore (leaderboard.db, the default) and
+ * LogScoreStore (leaderboard.log), an append-only file that needs no native
+ * library. The no-argument constructor picks one from the btd.leaderboard.store
+ * system property, "sqlite" or "log".
+ *
+ * All methods are synchronized, so one manager can be shared between threads;
+ * only importScores and exportScores run outside the lock, so a long transfer does
+ * not hold up the game. The stores hold up other calls for at most one chunk of a
+ * transfer: SQLite moves it on a connection of its own, the log locks per chunk.
+ *
+ * Game-over scores go through submitScore, which queues them for a background
+ * writer thread and returns immediately. The writer drains whatever has queued up
+ * and stores it as one batch, so the JavaFX thread never waits on disk I/O.
+ * close() stops accepting scores and flushes the queue before closing.
+ */
+public class LeaderboardManager implements AutoCloseable {
+    static final String STORE_PROPERTY = "btd.leaderboard.store";
+    private static final String LOG_PATH = "leaderboard.log";
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final ScoreStore store;
+
+    // Write-behind queue; a PendingScore with a null name tells the writer to stop
+    private static final PendingScore SHUTDOWN = new PendingScore(null, 0);
+    private final BlockingQueue<PendingScore> pendingScores = new LinkedBlockingQueue<>();
+    // Submitted scores not yet stored, including a batch the writer has taken off the queue
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Thread writerThread;
+    private volatile boolean closed;
 
     public LeaderboardManager() {
-        initializeDatabase();
-    }
-
-    private void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            Statement stmt = conn.createStatement();
-            // Create table if it doesn't exist
-            stmt.execute(
-                "CREATE TABLE IF NOT EXISTS leaderboard (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "player_name TEXT," +
-                "score INTEGER," +
-                "date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"
-            );
-        } catch (Exception e) {
-            e.printStackTrace();
+        this(openConfiguredStore());
+    }
+
+    public LeaderboardManager(String dbUrl) {
+        this(new SqliteScoreStore(dbUrl));
+    }
+
+    public LeaderboardManager(ScoreStore store) {
+        this.store = store;
+        writerThread = new Thread(this::runWriter, "leaderboard-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static ScoreStore openConfiguredStore() {
+        if ("log".equalsIgnoreCase(System.getProperty(STORE_PROPERTY, "sqlite"))) {
+            try {
+                return new LogScoreStore(Paths.get(LOG_PATH));
+            } catch (IOException e) {
+                // Scores still get saved, just not where the kiosk expects them
+                System.err.println("Could not open " + LOG_PATH + ", using SQLite instead: " + e.getMessage());
+            }
         }
+        return new SqliteScoreStore(SqliteScoreStore.DEFAULT_URL);
     }
 
-    public void addScore(String playerName, int score) {
+    static String normalizePlayerName(String playerName) {
         if (playerName == null || playerName.trim().isEmpty()) {
-            playerName = "Unknown Player";
-        }
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "INSERT INTO leaderboard (player_name, score) VALUES (?, ?)";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, playerName.trim());
-            pstmt.setInt(2, score);
-            pstmt.executeUpdate();
+            return "Unknown Player";
+        }
+        return playerName.trim();
+    }
+
+    public synchronized void addScore(String playerName, int score) {
+        try {
+            storeScores(List.of(new LeaderboardEntry(normalizePlayerName(playerName), score, null)));
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    public List<LeaderboardEntry> getTopScores(int limit) {
-        List<LeaderboardEntry> scores = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            String sql = "SELECT player_name, score, date FROM leaderboard ORDER BY score DESC LIMIT ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, limit);
-            ResultSet rs = pstmt.executeQuery();
+    /**
+     * Queues a score to be written by the background writer. The returned future
+     * completes once the score is committed, or exceptionally if it could not be.
+     */
+    public CompletableFuture<Void> submitScore(String playerName, int score) {
+        PendingScore pending = new PendingScore(normalizePlayerName(playerName), score);
+        synchronized (pendingScores) {
+            if (closed) {
+                pending.future.completeExceptionally(new IllegalStateException("Leaderboard is closed"));
+            } else {
+                pendingCount.incrementAndGet();
+                pendingScores.add(pending);
+            }
+        }
+        return pending.future;
+    }
+
+    /**
+     * Number of submitted scores not yet committed.
+     */
+    public int getPendingScoreCount() {
+        return pendingCount.get();
+    }
+
+    private void runWriter() {
+        List<PendingScore> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(pendingScores.take());
+            } catch (InterruptedException e) {
+                // Only close() stops the writer, and it does so through the queue
+                continue;
+            }
+            pendingScores.drainTo(batch, MAX_BATCH_SIZE - 1);
+            if (batch.remove(SHUTDOWN)) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+            batch.clear();
+        }
+    }
 
-            while (rs.next()) {
-                scores.add(new LeaderboardEntry(
-                    rs.getString("player_name"),
-                    rs.getInt("score"),
-                    rs.getTimestamp("date")
-                ));
+    private void writeBatch(List<PendingScore> batch) {
+        Exception failure = null;
+        try {
+            insertScores(batch);
+        } catch (Exception e) {
+            e.printStackTrace();
+            failure = e;
+        }
+        // Before completing, so callbacks on the futures see the batch as done
+        pendingCount.addAndGet(-batch.size());
+        for (PendingScore pending : batch) {
+            if (failure == null) {
+                pending.future.complete(null);
+            } else {
+                pending.future.completeExceptionally(failure);
             }
+        }
+    }
+
+    private synchronized void insertScores(List<PendingScore> batch) throws IOException {
+        List<LeaderboardEntry> scores = new ArrayList<>(batch.size());
+        for (PendingScore pending : batch) {
+            scores.add(new LeaderboardEntry(pending.playerName, pending.score, null));
+        }
+        storeScores(scores);
+    }
+
+    // Every score write goes through here, so a flight recording shows how long each one took
+    private void storeScores(List<LeaderboardEntry> scores) throws IOException {
+        GameEvents.LeaderboardWrite event = new GameEvents.LeaderboardWrite();
+        event.begin();
+        try {
+            store.addScores(scores);
+            event.succeeded = true;
+        } finally {
+            event.scores = scores.size();
+            event.store = store.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the best scores, highest first.
+     */
+    public synchronized List<LeaderboardEntry> getTopScores(int limit) {
+        try {
+            return store.getTopScores(limit);
         } catch (Exception e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return scores;
     }
 
-    public void saveScores() {
-        // Already saved in database automatically
+    /**
+     * Returns the best scores of the current day or week, highest first, or of all
+     * time. Daily and weekly lists hold at most the best 100 entries.
+     */
+    public synchronized List<LeaderboardEntry> getTopScores(LeaderboardPeriod period, int limit) {
+        if (period == LeaderboardPeriod.ALL_TIME) {
+            return getTopScores(limit);
+        }
+        try {
+            return store.getTopScores(period, limit);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns a player's games played, total and best score, or null if they have
+     * no recorded games.
+     */
+    public synchronized PlayerStats getPlayerStats(String playerName) {
+        try {
+            return store.getPlayerStats(normalizePlayerName(playerName));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns up to size entries that follow the given entry in leaderboard order,
+     * or the first page if after is null.
+     */
+    public synchronized List<LeaderboardEntry> getPageAfter(LeaderboardEntry after, int size) {
+        if (after == null) {
+            return getPage(0, size);
+        }
+        try {
+            return store.getPageAfter(after, size);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns up to size entries that precede the given entry in leaderboard order.
+     */
+    public synchronized List<LeaderboardEntry> getPageBefore(LeaderboardEntry before, int size) {
+        try {
+            return store.getPageBefore(before, size);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns up to size entries starting at the best score not above the given
+     * one, which is at position getRank(score) - 1.
+     */
+    public synchronized List<LeaderboardEntry> getPageFrom(int score, int size) {
+        try {
+            return store.getPageFrom(score, size);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns up to size entries starting at the given position (0 = best score).
+     * Prefer the keyset pages (getPageAfter, getPageBefore, getPageFrom) where they apply.
+     */
+    public synchronized List<LeaderboardEntry> getPage(long offset, int size) {
+        try {
+            return store.getPage(offset, size);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns the place a score would take on the leaderboard: one more than the
+     * number of strictly better scores.
+     */
+    public synchronized long getRank(int score) {
+        try {
+            return store.countAbove(score) + 1;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Total number of scores.
+     */
+    public synchronized long getScoreCount() {
+        try {
+            return store.getScoreCount();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
     }
 
-    public void loadScores() {
-        cachedScores = getTopScores(10);
-        displayLeaderboard();
+    /**
+     * Returns the percentage (0-100) of recorded scores that the given score beats.
+     */
+    public synchronized double getPercentile(int score) {
+        try {
+            long total = store.getScoreCount();
+            if (total == 0) return 100.0;
+            // Scores at or above this one are those strictly above score - 1
+            long atOrAbove = score == Integer.MIN_VALUE ? total : store.countAbove(score - 1);
+            return 100.0 * (total - atOrAbove) / total;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
     }
 
-    private void displayLeaderboard() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle("Leaderboard");
-        alert.setHeaderText("Top 10 Scores");
+    /**
+     * Returns the lowest score still within the best (100 - percentile) percent,
+     * e.g. percentile 90 gives the score needed to be in the top 10%.
+     */
+    public synchronized int getScoreAtPercentile(double percentile) {
+        try {
+            long total = store.getScoreCount();
+            if (total == 0) return 0;
+            double topShare = Math.max(0.0, Math.min(100.0, 100.0 - percentile)) / 100.0;
+            long position = Math.max(0, Math.min(total - 1, (long) Math.ceil(total * topShare) - 1));
+            List<LeaderboardEntry> entry = store.getPage(position, 1);
+            return entry.isEmpty() ? 0 : entry.get(0).getScore();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
 
-        TextArea textArea = new TextArea();
-        textArea.setEditable(false);
-        textArea.setPrefRowCount(12);
+    /**
+     * Appends every score in a CSV (by .csv extension) or JSON lines file and returns
+     * how many were imported. Malformed lines are reported and skipped.
+     */
+    public long importScores(Path file) throws IOException {
+        return store.importScores(file);
+    }
 
-        StringBuilder content = new StringBuilder();
-        content.append(String.format("%-20s %-10s %-20s\n", "Player", "Score", "Date"));
-        content.append("-".repeat(50)).append("\n");
+    /**
+     * Writes every score, oldest first, to a CSV (by .csv extension) or JSON lines
+     * file and returns how many were written. Memory use does not grow with the
+     * number of scores.
+     */
+    public long exportScores(Path file) throws IOException {
+        return store.exportScores(file);
+    }
 
-        for (LeaderboardEntry entry : cachedScores) {
-            content.append(String.format("%-20s %-10d %-20s\n",
-                entry.getPlayerName(),
-                entry.getScore(),
-                entry.getDate().toString()
-            ));
+    public void saveScores() {
+        // Already saved in database automatically
+    }
+
+    /**
+     * Writes any scores still queued, then closes the store. Called
+     * once when the application exits.
+     */
+    @Override
+    public void close() {
+        boolean stopWriter;
+        synchronized (pendingScores) {
+            // No score can be queued behind the shutdown marker
+            stopWriter = !closed;
+            closed = true;
+            if (stopWriter) {
+                pendingScores.add(SHUTDOWN);
+            }
+        }
+        if (stopWriter) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
+    }
+
+    private static final class PendingScore {
+        final String playerName;
+        final int score;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
 
-        textArea.setText(content.toString());
-        
-        VBox dialogContent = new VBox(10);
-        dialogContent.getChildren().add(textArea);
-        alert.getDialogPane().setContent(dialogContent);
-        
-        alert.showAndWait();
+        PendingScore(String playerName, int score) {
+            this.playerName = playerName;
+            this.score = score;
+        }
     }
 }
\ No newline at end of file
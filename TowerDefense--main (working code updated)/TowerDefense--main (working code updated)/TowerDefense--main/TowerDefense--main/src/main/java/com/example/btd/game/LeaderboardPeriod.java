@@ -0,0 +1,46 @@
+package com.example.btd.game;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time window a leaderboard view covers. Days and weeks (starting Monday) follow
+ * the local time of the machine writing the score.
+ */
+public enum LeaderboardPeriod {
+    DAILY("Today", "daily", "'localtime'"),
+    WEEKLY("This Week", "weekly", "'localtime', '-6 days', 'weekday 1'"),
+    ALL_TIME("All Time", null, null);
+
+    private final String displayName;
+    private final String key;
+    private final String dateModifiers;
+
+    LeaderboardPeriod(String displayName, String key, String dateModifiers) {
+        this.displayName = displayName;
+        this.key = key;
+        this.dateModifiers = dateModifiers;
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    // Value of period_type in leaderboard_period_top; null for ALL_TIME
+    String getKey() { return key; }
+
+    /**
+     * SQL expression for the first day of the period containing the given SQL
+     * timestamp expression. Not defined for ALL_TIME.
+     */
+    String startSql(String timestampSql) {
+        return "date(" + timestampSql + ", " + dateModifiers + ")";
+    }
+
+    /**
+     * First day of the period containing the given local date, matching startSql.
+     * Not defined for ALL_TIME.
+     */
+    LocalDate startOf(LocalDate day) {
+        return this == DAILY ? day : day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,587 @@
+package com.example.btd.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Score store in an append-only log file, for builds that should not load the
+ * SQLite native library.
+ *
+ * The file is an 8-byte header followed by one record per score:
+ * [payload length][CRC32 of payload][epoch seconds (long)][score][player name, UTF-8].
+ * A record's id is its position in the log, starting at 1. The file is memory
+ * mapped, so appending a score is a few buffer writes with no system call; the
+ * mapping grows by doubling and the unused part past the last record reads as zeros.
+ *
+ * Nothing is stored besides the log. Opening it walks every record to rebuild the
+ * in-memory indexes: all scores as sorted rank keys (for paging, rank and
+ * percentile), the best TOP_K entries, the best TOP_K of the current day and week,
+ * and per-player statistics.
+ *
+ * A written record reaches the OS as soon as it is appended, so it survives the
+ * application crashing, as with SQLite's synchronous=NORMAL; the mapping is only
+ * forced to disk after an import and on close. A record cut short by a power
+ * loss fails its length or CRC check on the next open, and the log is cut back to
+ * the last complete record. Scores are never changed or removed, so the only dead
+ * space to compact is that damaged tail and the slack left by growing the
+ * mapping, both of which are dropped when the store is closed.
+ *
+ * Only one process may have the log open; a lock file next to it enforces that.
+ * All methods are synchronized, except that importScores and exportScores take
+ * the lock once per chunk of IMPORT_CHUNK_SIZE scores rather than for the whole file.
+ */
+public class LogScoreStore implements ScoreStore {
+    private static final int MAGIC = 0x4254444c; // "BTDL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int FIXED_PAYLOAD_SIZE = 12;
+    private static final int MAX_NAME_CHARS = 256;
+    // Three bytes per UTF-16 unit is the most UTF-8 needs
+    private static final int MAX_PAYLOAD_SIZE = FIXED_PAYLOAD_SIZE + 3 * MAX_NAME_CHARS;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final int TOP_K = 100;
+    private static final int IMPORT_CHUNK_SIZE = 50_000;
+    private static final byte[] ZEROS = new byte[8192];
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path path;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer log;
+    private int end; // file offset of the next record
+
+    // File offset of each record, by id - 1
+    private int[] offsets = new int[1024];
+    private int count;
+    // rankKey of every record in leaderboard order
+    private long[] order = new long[1024];
+    // The first TOP_K entries of order; null until read or after a score enters them
+    private List<LeaderboardEntry> topScores;
+    private final Map<LeaderboardPeriod, PeriodTop> periodTops = new EnumMap<>(LeaderboardPeriod.class);
+    private final Map<String, Stats> stats = new HashMap<>();
+
+    public LogScoreStore(Path path) throws IOException {
+        this.path = path;
+        lockChannel = FileChannel.open(path.resolveSibling(path.getFileName() + ".lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null; // held by another store in this process
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException(path + " is in use by another process");
+        }
+        lock = acquired;
+        FileChannel opened = null;
+        try {
+            opened = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel = opened;
+            load();
+        } catch (IOException | RuntimeException e) {
+            if (opened != null) opened.close();
+            lock.release();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the file, checks the header and rebuilds the indexes from every
+     * complete record, discarding a damaged tail.
+     */
+    private void load() throws IOException {
+        long size = channel.size();
+        map(Math.max(size, INITIAL_CAPACITY));
+        if (size == 0) {
+            log.putInt(0, MAGIC);
+            log.putInt(4, VERSION);
+        } else if (size < HEADER_SIZE || log.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a leaderboard log");
+        } else if (log.getInt(4) != VERSION) {
+            throw new IOException(path + " has unsupported version " + log.getInt(4));
+        }
+
+        int pos = HEADER_SIZE;
+        int length;
+        while ((length = recordLength(pos)) > 0) {
+            int index = addOffset(pos);
+            int score = log.getInt(pos + RECORD_HEADER_SIZE + 8);
+            order[index] = rankKey(score, index);
+            addStats(readName(pos, length), score, log.getLong(pos + RECORD_HEADER_SIZE));
+            pos += RECORD_HEADER_SIZE + length;
+        }
+        end = pos;
+        if (length < 0) {
+            System.err.println("Discarding incomplete record at byte " + pos + " of " + path);
+        }
+        // Clears a damaged record and anything after it, so the next append starts clean
+        zero(end, (int) size);
+        Arrays.sort(order, 0, count);
+    }
+
+    /**
+     * Payload length of the record at pos: 0 at the end of the log, -1 if the
+     * record is incomplete or damaged.
+     */
+    private int recordLength(int pos) {
+        if (pos + RECORD_HEADER_SIZE > log.capacity()) return 0;
+        int length = log.getInt(pos);
+        if (length == 0) return 0;
+        if (length < FIXED_PAYLOAD_SIZE || length > MAX_PAYLOAD_SIZE
+                || pos + RECORD_HEADER_SIZE + length > log.capacity()) {
+            return -1;
+        }
+        return checksum(pos + RECORD_HEADER_SIZE, length) == log.getInt(pos + 4) ? length : -1;
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(log.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException(path + " is full");
+        }
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void zero(int from, int to) {
+        for (int pos = from; pos < to; pos += ZEROS.length) {
+            log.put(pos, ZEROS, 0, Math.min(ZEROS.length, to - pos));
+        }
+    }
+
+    /**
+     * Sort key of a record in leaderboard order, compared as a signed long: ~score
+     * in the high 32 bits, so higher scores come first, then the index (and so id)
+     * ascending in the low 32.
+     */
+    private static long rankKey(int score, int index) {
+        return (long) ~score << 32 | (index & 0xffffffffL);
+    }
+
+    private static int indexOf(long rankKey) {
+        return (int) rankKey;
+    }
+
+    private int addOffset(int pos) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            order = Arrays.copyOf(order, count * 2);
+        }
+        offsets[count] = pos;
+        return count++;
+    }
+
+    private void addStats(String playerName, int score, long seconds) {
+        Stats player = stats.computeIfAbsent(playerName, name -> new Stats());
+        player.gamesPlayed++;
+        player.totalScore += score;
+        player.bestScore = player.gamesPlayed == 1 ? score : Math.max(player.bestScore, score);
+        player.lastPlayed = Math.max(player.lastPlayed, seconds);
+    }
+
+    /**
+     * Writes one record at the end of the log and returns its index. The caller
+     * places its rank key in order.
+     */
+    private int append(String playerName, int score, long seconds) throws IOException {
+        if (playerName.length() > MAX_NAME_CHARS) {
+            int cut = Character.isHighSurrogate(playerName.charAt(MAX_NAME_CHARS - 1)) ? MAX_NAME_CHARS - 1 : MAX_NAME_CHARS;
+            playerName = playerName.substring(0, cut);
+        }
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        int length = FIXED_PAYLOAD_SIZE + name.length;
+        int size = RECORD_HEADER_SIZE + length;
+        if ((long) end + size > log.capacity()) {
+            map(Math.max((long) log.capacity() * 2, (long) end + size));
+        }
+        int payload = end + RECORD_HEADER_SIZE;
+        log.putLong(payload, seconds);
+        log.putInt(payload + 8, score);
+        log.put(payload + FIXED_PAYLOAD_SIZE, name);
+        log.putInt(end + 4, checksum(payload, length));
+        // The length goes last; until it is written the record reads as the end of the log
+        log.putInt(end, length);
+
+        int index = addOffset(end);
+        end += size;
+        addStats(playerName, score, seconds);
+        for (PeriodTop top : periodTops.values()) {
+            top.offer(seconds, rankKey(score, index));
+        }
+        return index;
+    }
+
+    private String readName(int pos, int length) {
+        byte[] name = new byte[length - FIXED_PAYLOAD_SIZE];
+        log.get(pos + RECORD_HEADER_SIZE + FIXED_PAYLOAD_SIZE, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private int readScore(int index) {
+        return log.getInt(offsets[index] + RECORD_HEADER_SIZE + 8);
+    }
+
+    private long readSeconds(int index) {
+        return log.getLong(offsets[index] + RECORD_HEADER_SIZE);
+    }
+
+    private LeaderboardEntry readEntry(int index) {
+        int pos = offsets[index];
+        return new LeaderboardEntry(index + 1, readName(pos, log.getInt(pos)), readScore(index),
+            new Timestamp(readSeconds(index) * 1000));
+    }
+
+    /**
+     * Entries at positions [from, from + size) of leaderboard order.
+     */
+    private List<LeaderboardEntry> readRange(long from, int size) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (long i = Math.max(0, from); i < count && i < from + size; i++) {
+            entries.add(readEntry(indexOf(order[(int) i])));
+        }
+        return entries;
+    }
+
+    /**
+     * Position of the first key in order that is not below the given one.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges the rank keys of the last added records into order, whose first
+     * count - added keys are already sorted. Sorts keys[0, added) on the way and
+     * returns the position the best of them lands at.
+     */
+    private int mergeKeys(long[] keys, int added) {
+        Arrays.sort(keys, 0, added);
+        // From the back, so no key in order is overwritten before it is moved
+        int from = count - added - 1;
+        int next = added - 1;
+        int to = count - 1;
+        for (; next >= 0; to--) {
+            if (from >= 0 && order[from] > keys[next]) {
+                order[to] = order[from--];
+            } else {
+                order[to] = keys[next--];
+            }
+        }
+        return to + 1;
+    }
+
+    @Override
+    public synchronized void addScores(List<LeaderboardEntry> scores) throws IOException {
+        long now = System.currentTimeMillis() / 1000;
+        long[] keys = new long[scores.size()];
+        int before = count;
+        try {
+            for (LeaderboardEntry entry : scores) {
+                int index = append(entry.getPlayerName(), entry.getScore(), now);
+                keys[index - before] = rankKey(entry.getScore(), index);
+            }
+        } finally {
+            // One merge for the whole batch; keeps whatever was appended before a failure
+            if (count > before && mergeKeys(keys, count - before) < TOP_K) {
+                topScores = null;
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getTopScores(int limit) {
+        if (limit > TOP_K) {
+            return readRange(0, limit);
+        }
+        if (topScores == null) {
+            topScores = readRange(0, TOP_K);
+        }
+        return new ArrayList<>(topScores.subList(0, Math.min(limit, topScores.size())));
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getTopScores(LeaderboardPeriod period, int limit) {
+        LocalDate start = period.startOf(LocalDate.now());
+        PeriodTop top = periodTops.get(period);
+        if (top == null || !top.start.equals(start)) {
+            // First use, or the day or week has rolled over since
+            top = new PeriodTop(period, start);
+            for (int index = 0; index < count; index++) {
+                top.offer(readSeconds(index), rankKey(readScore(index), index));
+            }
+            periodTops.put(period, top);
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < top.size && i < limit; i++) {
+            entries.add(readEntry(indexOf(top.keys[i])));
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized PlayerStats getPlayerStats(String playerName) {
+        Stats player = stats.get(playerName);
+        if (player == null) return null;
+        return new PlayerStats(playerName, player.gamesPlayed, player.totalScore, player.bestScore,
+            new Timestamp(player.lastPlayed * 1000));
+    }
+
+    private static long rankKey(LeaderboardEntry entry) {
+        // An entry built by hand has id 0, which has no place in the log
+        if (entry.getId() < 1 || entry.getId() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Entry has no id in this store: " + entry.getId());
+        }
+        return rankKey(entry.getScore(), (int) (entry.getId() - 1));
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getPageAfter(LeaderboardEntry after, int size) {
+        return readRange(lowerBound(rankKey(after) + 1), size);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getPageBefore(LeaderboardEntry before, int size) {
+        int end = lowerBound(rankKey(before));
+        int from = Math.max(0, end - size);
+        return readRange(from, end - from);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getPageFrom(int score, int size) {
+        return readRange(lowerBound(rankKey(score, 0)), size);
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntry> getPage(long offset, int size) {
+        return readRange(offset, size);
+    }
+
+    @Override
+    public synchronized long countAbove(int score) {
+        return lowerBound(rankKey(score, 0));
+    }
+
+    @Override
+    public synchronized long getScoreCount() {
+        return count;
+    }
+
+    /**
+     * Appends the scores in the file a chunk of IMPORT_CHUNK_SIZE at a time. Lines
+     * are read and parsed outside the lock; each chunk is then appended and its
+     * sorted rank keys merged into order under it, so other calls only wait for
+     * one chunk. Malformed lines are reported and skipped.
+     */
+    @Override
+    public long importScores(Path file) throws IOException {
+        ScoreFileFormat format = ScoreFileFormat.forPath(file);
+        long now = System.currentTimeMillis() / 1000;
+        String[] names = new String[IMPORT_CHUNK_SIZE];
+        int[] scores = new int[IMPORT_CHUNK_SIZE];
+        long[] seconds = new long[IMPORT_CHUNK_SIZE];
+        long[] keys = new long[IMPORT_CHUNK_SIZE];
+        long imported = 0;
+        try (LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            int size = 0;
+            String record;
+            while ((record = format.readRecord(reader)) != null) {
+                try {
+                    String[] fields = format.parse(record);
+                    if (fields == null) continue;
+                    seconds[size] = fields[2] == null ? now : parseDate(fields[2]);
+                    scores[size] = Integer.parseInt(fields[1].trim());
+                    names[size] = LeaderboardManager.normalizePlayerName(fields[0]);
+                } catch (IllegalArgumentException | DateTimeException e) {
+                    // The last line of the record, the same as its first unless a quoted value spans lines
+                    System.err.println("Skipping " + file + ":" + reader.getLineNumber() + ": " + e.getMessage());
+                    continue;
+                }
+                if (++size == IMPORT_CHUNK_SIZE) {
+                    imported += importChunk(names, scores, seconds, keys, size);
+                    size = 0;
+                }
+            }
+            imported += importChunk(names, scores, seconds, keys, size);
+        }
+        return imported;
+    }
+
+    private synchronized int importChunk(String[] names, int[] scores, long[] seconds, long[] keys, int size)
+            throws IOException {
+        if (log == null) {
+            throw new IOException(path + " is closed");
+        }
+        int before = count;
+        try {
+            for (int i = 0; i < size; i++) {
+                int index = append(names[i], scores[i], seconds[i]);
+                keys[index - before] = rankKey(scores[i], index);
+            }
+        } finally {
+            // Keeps whatever was appended before a failure
+            int added = count - before;
+            mergeKeys(keys, added);
+            if (added > 0) {
+                topScores = null;
+                log.force();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the scores there were when the export started, in id order. Records
+     * are read under the lock a chunk at a time and written outside it.
+     */
+    @Override
+    public long exportScores(Path file) throws IOException {
+        ScoreFileFormat format = ScoreFileFormat.forPath(file);
+        int total;
+        synchronized (this) {
+            total = count;
+        }
+        List<LeaderboardEntry> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            format.writeHeader(writer);
+            for (int from = 0; from < total; from += IMPORT_CHUNK_SIZE) {
+                exportChunk(chunk, from, Math.min(total, from + IMPORT_CHUNK_SIZE));
+                for (LeaderboardEntry entry : chunk) {
+                    format.write(writer, entry.getPlayerName(), entry.getScore(), formatDate(entry.getDate().getTime() / 1000));
+                }
+                chunk.clear();
+            }
+        }
+        return total;
+    }
+
+    private synchronized void exportChunk(List<LeaderboardEntry> chunk, int from, int to) throws IOException {
+        if (log == null) {
+            throw new IOException(path + " is closed");
+        }
+        for (int index = from; index < to; index++) {
+            chunk.add(readEntry(index));
+        }
+    }
+
+    /**
+     * Parses a date as SQLite writes it (UTC, "yyyy-MM-dd HH:mm:ss"), also
+     * accepting an ISO 'T' separator, fractional seconds or a bare date.
+     */
+    private static long parseDate(String text) {
+        String date = text.trim().replace('T', ' ');
+        if (date.length() == 10) {
+            date += " 00:00:00";
+        } else if (date.length() > 19) {
+            date = date.substring(0, 19);
+        }
+        return LocalDateTime.parse(date, DATE_FORMAT).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static String formatDate(long seconds) {
+        return DATE_FORMAT.format(LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC));
+    }
+
+    /**
+     * Forces the log to disk and compacts it: the file is cut back to its last
+     * record, dropping the growth slack. Some platforms refuse to shrink a file
+     * that is still mapped; the slack is then left for the next close.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (log == null) return;
+        try {
+            log.force();
+            log = null;
+            try {
+                channel.truncate(end);
+            } catch (IOException e) {
+                // Harmless: the slack reads as zeros, i.e. the end of the log
+            }
+        } finally {
+            channel.close();
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    /**
+     * The best TOP_K rank keys among scores recorded during one day or week.
+     */
+    private static final class PeriodTop {
+        final LocalDate start;
+        final long fromSeconds;
+        final long toSeconds;
+        final long[] keys = new long[TOP_K + 1];
+        int size;
+
+        PeriodTop(LeaderboardPeriod period, LocalDate start) {
+            ZoneId zone = ZoneId.systemDefault();
+            this.start = start;
+            fromSeconds = start.atStartOfDay(zone).toEpochSecond();
+            toSeconds = start.plusDays(period == LeaderboardPeriod.DAILY ? 1 : 7).atStartOfDay(zone).toEpochSecond();
+        }
+
+        void offer(long seconds, long key) {
+            if (seconds < fromSeconds || seconds >= toSeconds) return;
+            if (size == TOP_K && key > keys[TOP_K - 1]) return;
+            int position = size;
+            while (position > 0 && keys[position - 1] > key) {
+                keys[position] = keys[position - 1];
+                position--;
+            }
+            keys[position] = key;
+            size = Math.min(size + 1, TOP_K);
+        }
+    }
+
+    private static final class Stats {
+        int gamesPlayed;
+        long totalScore;
+        int bestScore;
+        long lastPlayed;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.example.btd.game;
+
+public class PlayerStats {
+    private String playerName;
+    private int gamesPlayed;
+    private long totalScore;
+    private int bestScore;
+    private java.sql.Timestamp lastPlayed;
+
+    public PlayerStats(String playerName, int gamesPlayed, long totalScore, int bestScore, java.sql.Timestamp lastPlayed) {
+        this.playerName = playerName;
+        this.gamesPlayed = gamesPlayed;
+        this.totalScore = totalScore;
+        this.bestScore = bestScore;
+        this.lastPlayed = lastPlayed;
+    }
+
+    public String getPlayerName() { return playerName; }
+    public int getGamesPlayed() { return gamesPlayed; }
+    public long getTotalScore() { return totalScore; }
+    public int getBestScore() { return bestScore; }
+    public java.sql.Timestamp getLastPlayed() { return lastPlayed; }
+    public double getAverageScore() { return gamesPlayed == 0 ? 0 : (double) totalScore / gamesPlayed; }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.example.btd.game;
+
+/**
+ * Fixed-capacity pool holding every projectile in flight as parallel primitive arrays.
+ *
+ * Free slots are kept in a ring buffer: firing takes the oldest free slot from the
+ * head and releasing a projectile puts its slot back at the tail, so slots are
+ * reused in rotation and firing never allocates. The slots currently in use are
+ * also listed in a dense array that the tick and the renderer walk; releasing one
+ * swaps the last entry into its place.
+ *
+ * When the pool is full a new shot is dropped and counted instead of growing the
+ * pool, which keeps memory flat under any load and makes overload visible.
+ */
+public class ProjectilePool {
+    // Projectile styles, mapped to colors by GameRenderer
+    public static final int STYLE_BASIC = 0;
+    public static final int STYLE_RAPID = 1;
+    public static final int STYLE_HEAVY = 2;
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final double PROJECTILE_SPEED = 300; // pixels per second
+    private static final double ARRIVAL_DISTANCE = 5; // Closer than this to its target point, a projectile has arrived
+
+    private final int capacity;
+    private final double[] x;
+    private final double[] y;
+    private final double[] prevX; // Position at the start of the last tick, for render interpolation
+    private final double[] prevY;
+    private final double[] targetX;
+    private final double[] targetY;
+    private final double[] damage;
+    private final double[] size;
+    private final byte[] style;
+
+    // Ring buffer of free slots
+    private final int[] freeSlots;
+    private int freeHead;
+    private int freeCount;
+
+    // Dense list of slots in use
+    private final int[] activeSlots;
+    private int activeCount;
+
+    private long fired;
+    private long dropped;
+
+    public ProjectilePool(int capacity) {
+        this.capacity = capacity;
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        damage = new double[capacity];
+        size = new double[capacity];
+        style = new byte[capacity];
+        freeSlots = new int[capacity];
+        activeSlots = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = i;
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Launches a projectile from (startX, startY) towards a fixed target point.
+     * Returns false, and counts the shot as dropped, if the pool is full.
+     */
+    public boolean fire(double startX, double startY, double targetX, double targetY,
+                        double damage, int style, double size) {
+        if (freeCount == 0) {
+            dropped++;
+            return false;
+        }
+        int slot = freeSlots[freeHead];
+        freeHead = (freeHead + 1) % capacity;
+        freeCount--;
+
+        x[slot] = startX;
+        y[slot] = startY;
+        prevX[slot] = startX;
+        prevY[slot] = startY;
+        this.targetX[slot] = targetX;
+        this.targetY[slot] = targetY;
+        this.damage[slot] = damage;
+        this.size[slot] = size;
+        this.style[slot] = (byte) style;
+        activeSlots[activeCount++] = slot;
+        fired++;
+        return true;
+    }
+
+    /**
+     * Moves the projectile at the given index of the active list towards its target.
+     * Returns true once it has reached the target point; the caller tests it for a
+     * hit there one last time and then releases it.
+     */
+    public boolean update(int index, double deltaTime) {
+        int slot = activeSlots[index];
+        prevX[slot] = x[slot];
+        prevY[slot] = y[slot];
+
+        // Calculate direction
+        double dx = targetX[slot] - x[slot];
+        double dy = targetY[slot] - y[slot];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+
+        // Normalize direction and apply speed
+        double step = PROJECTILE_SPEED * deltaTime;
+        x[slot] += dx / distance * step;
+        y[slot] += dy / distance * step;
+
+        // Check if projectile reached target
+        double currentDx = targetX[slot] - x[slot];
+        double currentDy = targetY[slot] - y[slot];
+        return currentDx * currentDx + currentDy * currentDy < ARRIVAL_DISTANCE * ARRIVAL_DISTANCE;
+    }
+
+    /**
+     * Returns the projectile at the given index of the active list to the pool. The
+     * last active projectile takes its index, so callers iterating the active list
+     * should look at the same index again.
+     */
+    public void release(int index) {
+        int slot = activeSlots[index];
+        activeSlots[index] = activeSlots[--activeCount];
+        freeSlots[(freeHead + freeCount) % capacity] = slot;
+        freeCount++;
+    }
+
+    public int getActiveCount() { return activeCount; }
+    public int getCapacity() { return capacity; }
+    public long getFiredCount() { return fired; }
+    public long getDroppedCount() { return dropped; }
+
+    // Accessors by index into the active list
+    public double getX(int index) { return x[activeSlots[index]]; }
+    public double getY(int index) { return y[activeSlots[index]]; }
+    public double getPrevX(int index) { return prevX[activeSlots[index]]; }
+    public double getPrevY(int index) { return prevY[activeSlots[index]]; }
+    public double getDamage(int index) { return damage[activeSlots[index]]; }
+    public double getSize(int index) { return size[activeSlots[index]]; }
+    public int getStyle(int index) { return style[activeSlots[index]]; }
+}
\ No newline at end of file
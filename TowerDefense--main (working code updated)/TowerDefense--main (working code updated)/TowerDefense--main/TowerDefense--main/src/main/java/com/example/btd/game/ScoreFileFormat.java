@@ -0,0 +1,246 @@
+package com.example.btd.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Record formats for bulk score import and export: CSV with a
+ * player_name,score,date header, or JSON lines with the same three keys.
+ * Dates are kept as the text SQLite stores (e.g. "2024-05-01 18:30:00").
+ *
+ * A JSON lines record is one line, with line breaks in values escaped. A CSV
+ * record ends at the first line break outside quotes, so a quoted value can span
+ * lines; such a line break is read back as '\n' whichever one was written.
+ */
+enum ScoreFileFormat {
+    CSV,
+    JSON_LINES;
+
+    static final String[] COLUMNS = {"player_name", "score", "date"};
+
+    static ScoreFileFormat forPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") ? CSV : JSON_LINES;
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the file. A CSV record
+     * whose quote is still open at the end of the file is returned as it is, and
+     * parse rejects it.
+     */
+    String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (this != CSV || line == null || !endsQuoted(line, false)) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        boolean quoted = true;
+        while (quoted && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quoted = endsQuoted(line, true);
+        }
+        return record.toString();
+    }
+
+    // Every quote toggles; an escaped "" toggles twice and so changes nothing
+    private static boolean endsQuoted(String line, boolean quoted) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return quoted;
+    }
+
+    /**
+     * Parses one record into {player_name, score, date} (date may be null), or
+     * returns null for a blank or header line. Throws IllegalArgumentException
+     * if the record is malformed.
+     */
+    String[] parse(String line) {
+        if (line.isBlank()) return null;
+        String[] fields = this == CSV ? parseCsv(line) : parseJson(line);
+        if (this == CSV && fields[0].equals(COLUMNS[0]) && fields[1].equals(COLUMNS[1])) {
+            return null; // header
+        }
+        if (fields[1] == null || fields[1].isEmpty()) {
+            throw new IllegalArgumentException("missing score");
+        }
+        Integer.parseInt(fields[1].trim()); // validates; NumberFormatException is an IllegalArgumentException
+        if (fields[2] != null && fields[2].isEmpty()) {
+            fields[2] = null;
+        }
+        return fields;
+    }
+
+    void writeHeader(Appendable out) throws IOException {
+        if (this == CSV) {
+            out.append(String.join(",", COLUMNS)).append('\n');
+        }
+    }
+
+    void write(Appendable out, String playerName, int score, String date) throws IOException {
+        if (this == CSV) {
+            appendCsv(out, playerName);
+            out.append(',').append(Integer.toString(score)).append(',');
+            appendCsv(out, date);
+        } else {
+            out.append("{\"player_name\":");
+            appendJson(out, playerName);
+            out.append(",\"score\":").append(Integer.toString(score)).append(",\"date\":");
+            appendJson(out, date);
+            out.append('}');
+        }
+        out.append('\n');
+    }
+
+    private static String[] parseCsv(String line) {
+        String[] fields = new String[3];
+        int field = 0;
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (field >= 2) throw new IllegalArgumentException("too many columns");
+                fields[field++] = value.toString();
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quote");
+        if (field < 1) throw new IllegalArgumentException("expected player_name,score[,date]");
+        fields[field] = value.toString();
+        return fields;
+    }
+
+    /**
+     * Reads one flat JSON object with string, number or null values. Keys other
+     * than the three columns are ignored.
+     */
+    private static String[] parseJson(String line) {
+        String[] fields = new String[3];
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            pos[0]++;
+        } else {
+            while (true) {
+                String key = readJsonString(line, pos);
+                expect(line, pos, ':');
+                String value = readJsonValue(line, pos);
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    if (COLUMNS[i].equals(key)) fields[i] = value;
+                }
+                char next = peek(line, pos);
+                pos[0]++;
+                if (next == '}') break;
+                if (next != ',') throw new IllegalArgumentException("expected ',' or '}'");
+            }
+        }
+        if (skipSpace(line, pos[0]) != line.length()) throw new IllegalArgumentException("trailing characters");
+        return fields;
+    }
+
+    private static String readJsonValue(String line, int[] pos) {
+        char c = peek(line, pos);
+        if (c == '"') return readJsonString(line, pos);
+        int start = pos[0];
+        while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) pos[0]++;
+        String literal = line.substring(start, pos[0]);
+        if (literal.isEmpty()) throw new IllegalArgumentException("missing value");
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String readJsonString(String line, int[] pos) {
+        expect(line, pos, '"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            if (pos[0] >= line.length()) throw new IllegalArgumentException("unterminated string");
+            char c = line.charAt(pos[0]++);
+            if (c == '"') return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (pos[0] >= line.length()) throw new IllegalArgumentException("unterminated string");
+            char escaped = line.charAt(pos[0]++);
+            switch (escaped) {
+                case 'n': value.append('\n'); break;
+                case 't': value.append('\t'); break;
+                case 'r': value.append('\r'); break;
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > line.length()) throw new IllegalArgumentException("bad \\u escape");
+                    value.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: value.append(escaped); break;
+            }
+        }
+    }
+
+    private static char peek(String line, int[] pos) {
+        pos[0] = skipSpace(line, pos[0]);
+        if (pos[0] >= line.length()) throw new IllegalArgumentException("unexpected end of line");
+        return line.charAt(pos[0]);
+    }
+
+    private static void expect(String line, int[] pos, char expected) {
+        if (peek(line, pos) != expected) throw new IllegalArgumentException("expected '" + expected + "'");
+        pos[0]++;
+    }
+
+    private static int skipSpace(String line, int index) {
+        while (index < line.length() && Character.isWhitespace(line.charAt(index))) index++;
+        return index;
+    }
+
+    private static void appendCsv(Appendable out, String value) throws IOException {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void appendJson(Appendable out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.btd.game;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Storage behind LeaderboardManager. Entries are ordered by score, highest first,
+ * with ties broken by id (earlier scores first); ids are assigned in insertion order.
+ *
+ * LeaderboardManager calls one method at a time, except importScores and
+ * exportScores, which may run alongside the others. Player names arrive already
+ * normalized.
+ */
+public interface ScoreStore extends AutoCloseable {
+
+    /**
+     * Records the given scores together, each with a new id and the current time.
+     * The ids and dates of the entries passed in are ignored.
+     */
+    void addScores(List<LeaderboardEntry> scores) throws IOException;
+
+    /**
+     * Returns up to limit of the best scores, highest first.
+     */
+    List<LeaderboardEntry> getTopScores(int limit) throws IOException;
+
+    /**
+     * Returns up to limit of the best scores of the current day or week. Not
+     * called with ALL_TIME.
+     */
+    List<LeaderboardEntry> getTopScores(LeaderboardPeriod period, int limit) throws IOException;
+
+    /**
+     * Returns a player's statistics, or null if they have no recorded games.
+     */
+    PlayerStats getPlayerStats(String playerName) throws IOException;
+
+    /**
+     * Returns up to size entries that follow the given entry in leaderboard order.
+     * The entry must have been read from this store, so that it carries its id.
+     */
+    List<LeaderboardEntry> getPageAfter(LeaderboardEntry after, int size) throws IOException;
+
+    /**
+     * Returns up to size entries that precede the given entry, in leaderboard
+     * order. The entry must have been read from this store.
+     */
+    List<LeaderboardEntry> getPageBefore(LeaderboardEntry before, int size) throws IOException;
+
+    /**
+     * Returns up to size entries starting at the best score not above the given
+     * one, i.e. at position countAbove(score).
+     */
+    List<LeaderboardEntry> getPageFrom(int score, int size) throws IOException;
+
+    /**
+     * Returns up to size entries starting at the given position (0 = best score).
+     */
+    List<LeaderboardEntry> getPage(long offset, int size) throws IOException;
+
+    /**
+     * Number of scores strictly greater than the given one.
+     */
+    long countAbove(int score) throws IOException;
+
+    long getScoreCount() throws IOException;
+
+    /**
+     * Appends every score in a CSV or JSON lines file (see ScoreFileFormat) and
+     * returns how many were imported.
+     */
+    long importScores(Path file) throws IOException;
+
+    /**
+     * Writes every score, oldest first, to a CSV or JSON lines file and returns how
+     * many were written.
+     */
+    long exportScores(Path file) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.example.btd.game;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.stage.Screen;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide cache of tower sprites, keyed by tower type and on-screen size.
+ *
+ * Each sprite is decoded once, already scaled to the pixel size it is drawn at
+ * (including the screen's output scale), so drawing it is a plain blit. A missing
+ * or broken image is replaced by a generated placeholder, also built only once.
+ * Only ever used from the JavaFX Application Thread.
+ */
+public final class SpriteCache {
+    // Only a handful of type/size combinations exist, so a short list beats a map
+    // here: lookups compare in place and never allocate a key.
+    private static final List<Entry> entries = new ArrayList<>();
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Starts decoding the sprites of every tower type at the given size on a
+     * background thread, so the first placement does not wait for image I/O.
+     */
+    public static void preloadTowerSprites(double towerSize) {
+        for (String type : new String[] {"basic", "sniper", "machine"}) {
+            getTowerSprite(type, towerSize, true);
+        }
+    }
+
+    /**
+     * Returns the sprite for the given tower type, pre-scaled to towerSize.
+     */
+    public static Image getTowerSprite(String type, double towerSize) {
+        return getTowerSprite(type, towerSize, false);
+    }
+
+    private static Image getTowerSprite(String type, double towerSize, boolean backgroundLoading) {
+        String normalizedType = normalizeType(type);
+        int pixels = toPixels(towerSize);
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.pixels == pixels && entry.type.equals(normalizedType)) {
+                if (entry.image.isError()) {
+                    // A background load failed after it was cached; swap in the placeholder
+                    entry.image = createPlaceholder(normalizedType, towerSize);
+                }
+                return entry.image;
+            }
+        }
+
+        Image image = loadTowerSprite(normalizedType, pixels, towerSize, backgroundLoading);
+        entries.add(new Entry(normalizedType, pixels, image));
+        return image;
+    }
+
+    private static String normalizeType(String type) {
+        if (type == null) return "basic";
+        switch (type.toLowerCase()) {
+            case "sniper": return "sniper";
+            case "machine": return "machine";
+            default: return "basic";
+        }
+    }
+
+    private static int toPixels(double towerSize) {
+        double outputScale = Screen.getPrimary().getOutputScaleX();
+        return Math.max(1, (int) Math.ceil(towerSize * outputScale));
+    }
+
+    private static Image loadTowerSprite(String type, int pixels, double towerSize, boolean backgroundLoading) {
+        // Map tower types to the existing resource names in /images
+        String spritePath = "images/";
+        switch (type) {
+            case "sniper":
+                spritePath += "sniper_tower.png";
+                break;
+            case "machine":
+                spritePath += "rapid_tower.png";
+                break;
+            default:
+                spritePath += "basic_tower.png";
+                break;
+        }
+
+        URL resource = SpriteCache.class.getClassLoader().getResource(spritePath);
+        if (resource == null) {
+            System.err.println("Error loading tower sprite: Resource not found: " + spritePath);
+            return createPlaceholder(type, towerSize);
+        }
+        Image loaded = new Image(resource.toExternalForm(), pixels, pixels, false, true, backgroundLoading);
+        if (loaded.isError()) {
+            System.err.println("Error loading tower sprite: Image reported error for: " + spritePath);
+            return createPlaceholder(type, towerSize);
+        }
+        return loaded;
+    }
+
+    private static Image createPlaceholder(String type, double towerSize) {
+        // Create a default colored rectangle as sprite based on tower type
+        Canvas tempCanvas = new Canvas(towerSize, towerSize);
+        GraphicsContext gc = tempCanvas.getGraphicsContext2D();
+
+        switch (type) {
+            case "machine":
+                // Rapid Tower - Green
+                gc.setFill(Color.GREEN);
+                break;
+            case "sniper":
+                // Sniper Tower - Red
+                gc.setFill(Color.RED);
+                break;
+            default:
+                // Basic Tower - Blue
+                gc.setFill(Color.BLUE);
+                break;
+        }
+
+        gc.fillRect(0, 0, towerSize, towerSize);
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(2);
+        gc.strokeRect(0, 0, towerSize, towerSize);
+        return tempCanvas.snapshot(null, null);
+    }
+
+    private static final class Entry {
+        final String type;
+        final int pixels;
+        Image image;
+
+        Entry(String type, int pixels, Image image) {
+            this.type = type;
+            this.pixels = pixels;
+            this.image = image;
+        }
+    }
+}
\ No newline at end of file
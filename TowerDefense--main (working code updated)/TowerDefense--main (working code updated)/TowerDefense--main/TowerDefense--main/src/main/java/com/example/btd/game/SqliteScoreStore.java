@@ -0,0 +1,801 @@
+package com.example.btd.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Score store in an SQLite file (leaderboard.db by default).
+ *
+ * One connection is kept open for the life of the store, with its prepared
+ * statements cached, instead of reconnecting for every call. The database runs in
+ * WAL mode so readers never block the writer, and several game processes can share
+ * the same file: SQLite waits up to BUSY_TIMEOUT_MS for a lock, and a call that
+ * still fails with SQLITE_BUSY/SQLITE_LOCKED is retried with a growing backoff.
+ *
+ * The best CACHED_SCORES entries are kept in memory. Scores written through this
+ * store are merged into that list as they are committed, and the list is only
+ * reloaded when SQLite's data_version shows that another process has written to
+ * the file, so showing the leaderboard again normally costs no query at all. The
+ * table carries a covering index in score order, so a reload reads only the index.
+ *
+ * Beyond the top scores, the same index serves rank and percentile lookups and
+ * paging through the whole table. Pages continue from the last entry of the
+ * previous page (keyset pagination) rather than skipping an OFFSET, so reading
+ * page 10,000 costs the same as reading page 1.
+ *
+ * Daily and weekly leaderboards read from leaderboard_period_top, which holds only
+ * the best PERIOD_TOP_K scores of each day and week. Triggers on the leaderboard
+ * table keep it current for every writer, including other processes, so "today's
+ * best" is a short index read however busy the table is.
+ *
+ * player_stats keeps each player's games played, total and best score, also
+ * maintained by trigger inside the transaction that inserts the score, so a
+ * player's statistics are a single primary-key lookup however long their history.
+ *
+ * importScores and exportScores move whole score files on a connection of their
+ * own, so a long transfer does not hold up the game. Imports are sent as JDBC
+ * batches and committed every IMPORT_CHUNK_SIZE rows, small enough that another
+ * writer waits well under BUSY_TIMEOUT_MS for a chunk. The summary tables are
+ * updated once per chunk instead of by trigger per row: the insert triggers skip
+ * rows while import_active has a row, which only an import's own transaction ever
+ * sees. Exports stream a forward-only cursor straight to the file, so memory stays flat.
+ */
+public class SqliteScoreStore implements ScoreStore {
+    static final String DEFAULT_URL = "jdbc:sqlite:leaderboard.db";
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BACKOFF_MS = 50;
+    private static final int CACHED_SCORES = 100;
+    private static final int PERIOD_TOP_K = 100;
+    private static final int IMPORT_CHUNK_SIZE = 5_000;
+    private static final int EXPORT_FETCH_SIZE = 1_000;
+
+    // Primary SQLite result codes (the low byte of extended codes)
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private static final String INSERT_SQL = "INSERT INTO leaderboard (player_name, score) VALUES (?, ?)";
+    private static final String TOP_SCORES_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard ORDER BY score DESC, id LIMIT ?";
+    private static final String INSERTED_SCORES_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard WHERE id BETWEEN ? AND ? AND score >= ?";
+    private static final String LAST_ID_SQL = "SELECT last_insert_rowid()";
+    // Leaderboard order is score DESC, id ASC; the score bound lets SQLite seek into the index
+    private static final String PAGE_AFTER_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard " +
+        "WHERE score <= ? AND (score < ? OR id > ?) ORDER BY score DESC, id LIMIT ?";
+    // The same seek backwards; rows come out in reverse leaderboard order
+    private static final String PAGE_BEFORE_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard " +
+        "WHERE score >= ? AND (score > ? OR id < ?) ORDER BY score, id DESC LIMIT ?";
+    private static final String PAGE_FROM_SCORE_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard WHERE score <= ? ORDER BY score DESC, id LIMIT ?";
+    private static final String PAGE_AT_OFFSET_SQL =
+        "SELECT id, player_name, score, date FROM leaderboard ORDER BY score DESC, id LIMIT ? OFFSET ?";
+    private static final String COUNT_ABOVE_SQL = "SELECT count(*) FROM leaderboard WHERE score > ?";
+    private static final String COUNT_SQL = "SELECT count(*) FROM leaderboard";
+    private static final String IMPORT_SQL =
+        "INSERT INTO leaderboard (player_name, score, date) VALUES (?, ?, coalesce(?, CURRENT_TIMESTAMP))";
+    private static final String EXPORT_SQL = "SELECT player_name, score, date FROM leaderboard ORDER BY id";
+    private static final String PLAYER_STATS_SQL =
+        "SELECT player_name, games_played, total_score, best_score, last_played FROM player_stats WHERE player_name = ?";
+    private static final LeaderboardPeriod[] SUMMARY_PERIODS = {LeaderboardPeriod.DAILY, LeaderboardPeriod.WEEKLY};
+    // Insert triggers fire only when this holds; an import makes it false inside its own transaction
+    private static final String NO_IMPORT_ACTIVE = "NOT EXISTS (SELECT 1 FROM import_active)";
+    private static final String PLAYER_STATS_TRIGGER_SQL =
+        "CREATE TRIGGER IF NOT EXISTS player_stats_insert AFTER INSERT ON leaderboard " +
+        "WHEN " + NO_IMPORT_ACTIVE + " BEGIN " +
+        "INSERT INTO player_stats (player_name, games_played, total_score, best_score, last_played) " +
+        "VALUES (NEW.player_name, 1, NEW.score, NEW.score, NEW.date) " +
+        "ON CONFLICT (player_name) DO UPDATE SET " +
+        "games_played = games_played + 1, " +
+        "total_score = total_score + excluded.total_score, " +
+        "best_score = max(best_score, excluded.best_score), " +
+        "last_played = max(last_played, excluded.last_played); " +
+        "END";
+    private static final String DAILY_TOP_SQL = periodTopSql(LeaderboardPeriod.DAILY);
+    private static final String WEEKLY_TOP_SQL = periodTopSql(LeaderboardPeriod.WEEKLY);
+    // Changes whenever another connection commits to the database
+    private static final String DATA_VERSION_SQL = "PRAGMA data_version";
+
+
+    private final String dbUrl;
+    private Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    // Best scores in leaderboard order; null until loaded or after invalidation
+    private List<LeaderboardEntry> topScores;
+    private long topScoresDataVersion;
+    private long scoreCount = -1; // -1 until counted or after invalidation
+    private long scoreCountDataVersion;
+
+    public SqliteScoreStore(String dbUrl) {
+        this.dbUrl = dbUrl;
+        initializeDatabase();
+    }
+
+    private void initializeDatabase() {
+        try {
+            execute(() -> {
+                Connection conn = connection();
+                // One transaction, so another process never sees the triggers without the backfilled rows
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    // Create table if it doesn't exist
+                    stmt.execute(
+                        "CREATE TABLE IF NOT EXISTS leaderboard (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                        "player_name TEXT," +
+                        "score INTEGER," +
+                        "date TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"
+                    );
+                    // Covers the top-scores query, so it never has to touch the table itself
+                    stmt.execute(
+                        "CREATE INDEX IF NOT EXISTS idx_leaderboard_score " +
+                        "ON leaderboard (score DESC, id, player_name, date)"
+                    );
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_leaderboard_date ON leaderboard (date)");
+                    createImportGate(stmt);
+                    createPeriodTop(stmt);
+                    createPlayerStats(stmt);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates import_active, which is empty except inside an import's chunk
+     * transaction. A database from before it existed has insert triggers that do
+     * not check it; those are dropped here so that they are recreated with the check.
+     */
+    private static void createImportGate(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'import_active'")) {
+            exists = rs.next();
+        }
+        if (!exists) {
+            dropInsertTriggers(stmt);
+            stmt.execute("CREATE TABLE import_active (id INTEGER PRIMARY KEY)");
+        }
+    }
+
+    /**
+     * Creates the per-day and per-week top-K table and the triggers that maintain it,
+     * and fills it from existing scores if it is empty.
+     */
+    private static void createPeriodTop(Statement stmt) throws SQLException {
+        stmt.execute(
+            "CREATE TABLE IF NOT EXISTS leaderboard_period_top (" +
+            "period_type TEXT NOT NULL," +
+            "period_start TEXT NOT NULL," +
+            "score_id INTEGER NOT NULL," +
+            "player_name TEXT," +
+            "score INTEGER," +
+            "date TIMESTAMP," +
+            "UNIQUE (period_type, period_start, score_id))"
+        );
+        stmt.execute(
+            "CREATE INDEX IF NOT EXISTS idx_period_top_score " +
+            "ON leaderboard_period_top (period_type, period_start, score DESC, score_id, player_name, date)"
+        );
+
+        for (LeaderboardPeriod period : SUMMARY_PERIODS) {
+            stmt.execute(periodTopTriggerSql(period));
+        }
+        stmt.execute(
+            "CREATE TRIGGER IF NOT EXISTS leaderboard_period_top_delete AFTER DELETE ON leaderboard BEGIN " +
+            "DELETE FROM leaderboard_period_top WHERE score_id = OLD.id; " +
+            "END"
+        );
+
+        // Backfill from scores recorded before the table existed
+        for (LeaderboardPeriod period : SUMMARY_PERIODS) {
+            stmt.execute(
+                "INSERT OR IGNORE INTO leaderboard_period_top " +
+                "(period_type, period_start, score_id, player_name, score, date) " +
+                periodTopCandidatesSql(period, "TRUE") +
+                " AND NOT EXISTS (SELECT 1 FROM leaderboard_period_top WHERE period_type = '" + period.getKey() + "')"
+            );
+        }
+    }
+
+    /**
+     * A score that beats its period's current K-th place enters the period, and
+     * whatever falls past K-th place is dropped. Most scores in a busy period fail
+     * the WHEN check, so they cost one short index read and no writes.
+     */
+    private static String periodTopTriggerSql(LeaderboardPeriod period) {
+        return "CREATE TRIGGER IF NOT EXISTS leaderboard_period_top_" + period.getKey() +
+            " AFTER INSERT ON leaderboard WHEN " + NO_IMPORT_ACTIVE + " AND NEW.score > coalesce((" +
+            "SELECT score FROM leaderboard_period_top " +
+            "WHERE period_type = '" + period.getKey() + "' AND period_start = " + period.startSql("NEW.date") +
+            " ORDER BY score DESC, score_id LIMIT 1 OFFSET " + (PERIOD_TOP_K - 1) + "), -9223372036854775808) BEGIN " +
+            "INSERT OR IGNORE INTO leaderboard_period_top " +
+            "(period_type, period_start, score_id, player_name, score, date) VALUES " +
+            "('" + period.getKey() + "', " + period.startSql("NEW.date") +
+            ", NEW.id, NEW.player_name, NEW.score, NEW.date); " +
+            "DELETE FROM leaderboard_period_top WHERE rowid IN (" +
+            "SELECT rowid FROM leaderboard_period_top " +
+            "WHERE period_type = '" + period.getKey() + "' AND period_start = " + period.startSql("NEW.date") +
+            " ORDER BY score DESC, score_id LIMIT -1 OFFSET " + PERIOD_TOP_K + "); " +
+            "END";
+    }
+
+    /**
+     * SELECT of the best K leaderboard rows of each period among the rows matching
+     * the filter, shaped for inserting into leaderboard_period_top.
+     */
+    private static String periodTopCandidatesSql(LeaderboardPeriod period, String filter) {
+        // The period start is computed once per row; 'localtime' conversion is the expensive part
+        return "SELECT '" + period.getKey() + "', period_start, id, player_name, score, date FROM (" +
+            "SELECT period_start, id, player_name, score, date, " +
+            "ROW_NUMBER() OVER (PARTITION BY period_start ORDER BY score DESC, id) AS place FROM (" +
+            "SELECT " + period.startSql("date") + " AS period_start, id, player_name, score, date " +
+            "FROM leaderboard WHERE " + filter + ")) " +
+            "WHERE place <= " + PERIOD_TOP_K;
+    }
+
+    /**
+     * Creates the per-player summary table and its triggers, and fills it from
+     * existing scores if it is empty.
+     */
+    private static void createPlayerStats(Statement stmt) throws SQLException {
+        stmt.execute(
+            "CREATE TABLE IF NOT EXISTS player_stats (" +
+            "player_name TEXT PRIMARY KEY," +
+            "games_played INTEGER NOT NULL," +
+            "total_score INTEGER NOT NULL," +
+            "best_score INTEGER NOT NULL," +
+            "last_played TIMESTAMP)"
+        );
+        stmt.execute(PLAYER_STATS_TRIGGER_SQL);
+        // Deleting scores is rare (manual cleanup), so the best score is simply recomputed
+        stmt.execute(
+            "CREATE TRIGGER IF NOT EXISTS player_stats_delete AFTER DELETE ON leaderboard BEGIN " +
+            "UPDATE player_stats SET " +
+            "games_played = games_played - 1, " +
+            "total_score = total_score - OLD.score, " +
+            "best_score = coalesce((SELECT max(score) FROM leaderboard WHERE player_name = OLD.player_name), 0), " +
+            "last_played = (SELECT max(date) FROM leaderboard WHERE player_name = OLD.player_name) " +
+            "WHERE player_name = OLD.player_name; " +
+            "DELETE FROM player_stats WHERE player_name = OLD.player_name AND games_played <= 0; " +
+            "END"
+        );
+        stmt.execute(
+            "INSERT INTO player_stats (player_name, games_played, total_score, best_score, last_played) " +
+            "SELECT player_name, count(*), sum(score), max(score), max(date) FROM leaderboard " +
+            "WHERE player_name IS NOT NULL AND NOT EXISTS (SELECT 1 FROM player_stats) " +
+            "GROUP BY player_name"
+        );
+    }
+
+    /**
+     * Adds the leaderboard rows with ids in [fromId, toId] to the summary tables in
+     * a few set-based statements. Used by bulk import in place of the per-row
+     * insert triggers; must run in the transaction that inserted the rows.
+     */
+    private static void addToSummaries(Connection conn, long fromId, long toId) throws SQLException {
+        String range = "id BETWEEN " + fromId + " AND " + toId;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(
+                "INSERT INTO player_stats (player_name, games_played, total_score, best_score, last_played) " +
+                "SELECT player_name, count(*), sum(score), max(score), max(date) FROM leaderboard " +
+                "WHERE " + range + " AND player_name IS NOT NULL GROUP BY player_name " +
+                "ON CONFLICT (player_name) DO UPDATE SET " +
+                "games_played = games_played + excluded.games_played, " +
+                "total_score = total_score + excluded.total_score, " +
+                "best_score = max(best_score, excluded.best_score), " +
+                "last_played = max(last_played, excluded.last_played)"
+            );
+            for (LeaderboardPeriod period : SUMMARY_PERIODS) {
+                // Each touched period gets the new rows' best K, then is cut back to K
+                stmt.execute(
+                    "INSERT OR IGNORE INTO leaderboard_period_top " +
+                    "(period_type, period_start, score_id, player_name, score, date) " +
+                    periodTopCandidatesSql(period, range)
+                );
+                stmt.execute(
+                    "DELETE FROM leaderboard_period_top WHERE rowid IN (" +
+                    "SELECT rowid FROM (SELECT rowid, ROW_NUMBER() OVER (" +
+                    "PARTITION BY period_start ORDER BY score DESC, score_id) AS place " +
+                    "FROM leaderboard_period_top WHERE period_type = '" + period.getKey() + "' " +
+                    "AND period_start IN (SELECT DISTINCT period_start FROM leaderboard_period_top " +
+                    "WHERE period_type = '" + period.getKey() + "' AND score_" + range + ")) " +
+                    "WHERE place > " + PERIOD_TOP_K + ")"
+                );
+            }
+        }
+    }
+
+    private static void dropInsertTriggers(Statement stmt) throws SQLException {
+        for (LeaderboardPeriod period : SUMMARY_PERIODS) {
+            stmt.execute("DROP TRIGGER IF EXISTS leaderboard_period_top_" + period.getKey());
+        }
+        stmt.execute("DROP TRIGGER IF EXISTS player_stats_insert");
+    }
+
+    private static String periodTopSql(LeaderboardPeriod period) {
+        return "SELECT score_id AS id, player_name, score, date FROM leaderboard_period_top " +
+            "WHERE period_type = '" + period.getKey() + "' AND period_start = " + period.startSql("'now'") +
+            " ORDER BY score DESC, score_id LIMIT ?";
+    }
+
+    /**
+     * Returns the shared connection, opening and configuring it on first use or
+     * after a failure closed it.
+     */
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            connection = openConnection();
+        }
+        return connection;
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = conn.createStatement()) {
+            // busy_timeout first, so switching the journal mode also waits for other processes
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            stmt.execute("PRAGMA journal_mode = WAL");
+            // In WAL mode NORMAL still survives application crashes and avoids an fsync per commit
+            stmt.execute("PRAGMA synchronous = NORMAL");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Returns the cached prepared statement for sql, preparing it on first use.
+     */
+    private PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection().prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Runs a database call, retrying it with a growing backoff while another
+     * process holds the lock. Any other failure drops the connection, so the next
+     * call starts from a fresh one.
+     */
+    private <T> T execute(SqlCall<T> call) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                if (!isBusy(e)) {
+                    closeConnection();
+                    throw e;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS << (attempt - 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isBusy(SQLException e) {
+        int code = e.getErrorCode() & 0xff;
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    /**
+     * Runs a database call through execute, reporting failures as IOException as the
+     * ScoreStore interface expects.
+     */
+    private <T> T call(SqlCall<T> sqlCall) throws IOException {
+        try {
+            return execute(sqlCall);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void addScores(List<LeaderboardEntry> scores) throws IOException {
+        int bestScore = Integer.MIN_VALUE;
+        for (LeaderboardEntry entry : scores) {
+            bestScore = Math.max(bestScore, entry.getScore());
+        }
+        // The whole batch is one transaction, retried if another process holds the write lock
+        call(() -> {
+            Connection conn = connection();
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = statement(INSERT_SQL);
+                for (LeaderboardEntry entry : scores) {
+                    pstmt.setString(1, entry.getPlayerName());
+                    pstmt.setInt(2, entry.getScore());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return null;
+        });
+        mergeInsertedScores(scores.size(), bestScore);
+    }
+
+    /**
+     * Up to CACHED_SCORES entries are served from memory while no other process has
+     * written to the database.
+     */
+    @Override
+    public List<LeaderboardEntry> getTopScores(int limit) throws IOException {
+        return call(() -> {
+            if (limit > CACHED_SCORES) {
+                return queryTopScores(limit);
+            }
+            long dataVersion = dataVersion();
+            if (topScores == null || dataVersion != topScoresDataVersion) {
+                topScores = queryTopScores(CACHED_SCORES);
+                topScoresDataVersion = dataVersion;
+            }
+            return new ArrayList<>(topScores.subList(0, Math.min(limit, topScores.size())));
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> getTopScores(LeaderboardPeriod period, int limit) throws IOException {
+        return call(() -> {
+            PreparedStatement pstmt = statement(period == LeaderboardPeriod.DAILY ? DAILY_TOP_SQL : WEEKLY_TOP_SQL);
+            pstmt.setInt(1, Math.min(limit, PERIOD_TOP_K));
+            return readEntries(pstmt);
+        });
+    }
+
+    @Override
+    public PlayerStats getPlayerStats(String playerName) throws IOException {
+        return call(() -> {
+            PreparedStatement pstmt = statement(PLAYER_STATS_SQL);
+            pstmt.setString(1, playerName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) return null;
+                return new PlayerStats(
+                    rs.getString("player_name"),
+                    rs.getInt("games_played"),
+                    rs.getLong("total_score"),
+                    rs.getInt("best_score"),
+                    rs.getTimestamp("last_played")
+                );
+            }
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> getPageAfter(LeaderboardEntry after, int size) throws IOException {
+        return call(() -> {
+            PreparedStatement pstmt = statement(PAGE_AFTER_SQL);
+            pstmt.setInt(1, after.getScore());
+            pstmt.setInt(2, after.getScore());
+            pstmt.setLong(3, after.getId());
+            pstmt.setInt(4, size);
+            return readEntries(pstmt);
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> getPageBefore(LeaderboardEntry before, int size) throws IOException {
+        return call(() -> {
+            PreparedStatement pstmt = statement(PAGE_BEFORE_SQL);
+            pstmt.setInt(1, before.getScore());
+            pstmt.setInt(2, before.getScore());
+            pstmt.setLong(3, before.getId());
+            pstmt.setInt(4, size);
+            List<LeaderboardEntry> entries = readEntries(pstmt);
+            Collections.reverse(entries);
+            return entries;
+        });
+    }
+
+    @Override
+    public List<LeaderboardEntry> getPageFrom(int score, int size) throws IOException {
+        return call(() -> {
+            PreparedStatement pstmt = statement(PAGE_FROM_SCORE_SQL);
+            pstmt.setInt(1, score);
+            pstmt.setInt(2, size);
+            return readEntries(pstmt);
+        });
+    }
+
+    /**
+     * Skipping to an offset walks the index up to it, so the keyset pages are
+     * cheaper wherever there is an entry or score to seek from.
+     */
+    @Override
+    public List<LeaderboardEntry> getPage(long offset, int size) throws IOException {
+        return call(() -> queryPage(offset, size));
+    }
+
+    @Override
+    public long countAbove(int score) throws IOException {
+        return call(() -> queryCountAbove(score));
+    }
+
+    /**
+     * Cached until another process writes to the database.
+     */
+    @Override
+    public long getScoreCount() throws IOException {
+        return call(this::scoreCount);
+    }
+
+    private List<LeaderboardEntry> queryPage(long offset, int size) throws SQLException {
+        PreparedStatement pstmt = statement(PAGE_AT_OFFSET_SQL);
+        pstmt.setInt(1, size);
+        pstmt.setLong(2, offset);
+        return readEntries(pstmt);
+    }
+
+    private long queryCountAbove(int score) throws SQLException {
+        PreparedStatement pstmt = statement(COUNT_ABOVE_SQL);
+        pstmt.setInt(1, score);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private long scoreCount() throws SQLException {
+        long dataVersion = dataVersion();
+        if (scoreCount < 0 || dataVersion != scoreCountDataVersion) {
+            try (ResultSet rs = statement(COUNT_SQL).executeQuery()) {
+                scoreCount = rs.next() ? rs.getLong(1) : 0;
+            }
+            scoreCountDataVersion = dataVersion;
+        }
+        return scoreCount;
+    }
+
+    private List<LeaderboardEntry> queryTopScores(int limit) throws SQLException {
+        PreparedStatement pstmt = statement(TOP_SCORES_SQL);
+        pstmt.setInt(1, limit);
+        return readEntries(pstmt);
+    }
+
+    private long dataVersion() throws SQLException {
+        try (ResultSet rs = statement(DATA_VERSION_SQL).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static List<LeaderboardEntry> readEntries(PreparedStatement pstmt) throws SQLException {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new LeaderboardEntry(
+                    rs.getLong("id"),
+                    rs.getString("player_name"),
+                    rs.getInt("score"),
+                    rs.getTimestamp("date")
+                ));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Brings the cached top scores up to date after this connection committed
+     * count rows. Our own commits do not change data_version, so the cache stays
+     * valid; only rows good enough to enter it are read back (by primary key, as
+     * the new rows have consecutive ids).
+     */
+    private void mergeInsertedScores(int count, int bestScore) {
+        if (scoreCount >= 0) {
+            scoreCount += count;
+        }
+        if (topScores == null) return;
+        try {
+            mergeInsertedRows(count, bestScore);
+        } catch (SQLException e) {
+            // The rows are committed either way; just rebuild the cache on the next read
+            topScores = null;
+        }
+    }
+
+    private void mergeInsertedRows(int count, int bestScore) throws SQLException {
+        boolean full = topScores.size() >= CACHED_SCORES;
+        int threshold = full ? topScores.get(topScores.size() - 1).getScore() : Integer.MIN_VALUE;
+        if (bestScore < threshold) return;
+
+        long lastId;
+        try (ResultSet rs = statement(LAST_ID_SQL).executeQuery()) {
+            lastId = rs.next() ? rs.getLong(1) : 0;
+        }
+        PreparedStatement pstmt = statement(INSERTED_SCORES_SQL);
+        pstmt.setLong(1, lastId - count + 1);
+        pstmt.setLong(2, lastId);
+        pstmt.setInt(3, threshold);
+        for (LeaderboardEntry entry : readEntries(pstmt)) {
+            int index = 0;
+            while (index < topScores.size() && topScores.get(index).getScore() >= entry.getScore()) {
+                index++;
+            }
+            topScores.add(index, entry);
+        }
+        while (topScores.size() > CACHED_SCORES) {
+            topScores.remove(topScores.size() - 1);
+        }
+    }
+
+    @Override
+    public long importScores(Path file) throws IOException {
+        try {
+            return importFile(file);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends every score in a CSV (by .csv extension) or JSON lines file and returns
+     * how many were imported. Malformed lines are reported and skipped. Each chunk
+     * is its own transaction, so a failure part-way keeps the chunks already done.
+     */
+    private long importFile(Path file) throws IOException, SQLException {
+        ScoreFileFormat format = ScoreFileFormat.forPath(file);
+        long imported = 0;
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(IMPORT_SQL);
+             LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            conn.setAutoCommit(false);
+            int inChunk = 0;
+            String record;
+            try {
+                while ((record = format.readRecord(reader)) != null) {
+                    String[] fields;
+                    try {
+                        fields = format.parse(record);
+                    } catch (IllegalArgumentException e) {
+                        // The last line of the record, the same as its first unless a quoted value spans lines
+                        System.err.println("Skipping " + file + ":" + reader.getLineNumber() + ": " + e.getMessage());
+                        continue;
+                    }
+                    if (fields == null) continue;
+
+                    pstmt.setString(1, LeaderboardManager.normalizePlayerName(fields[0]));
+                    pstmt.setInt(2, Integer.parseInt(fields[1].trim()));
+                    pstmt.setString(3, fields[2]);
+                    pstmt.addBatch();
+                    if (++inChunk == IMPORT_CHUNK_SIZE) {
+                        commitImportChunk(conn, pstmt);
+                        imported += inChunk;
+                        inChunk = 0;
+                    }
+                }
+                if (inChunk > 0) {
+                    commitImportChunk(conn, pstmt);
+                    imported += inChunk;
+                }
+            } catch (IOException | SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Inserts one batched chunk as a single transaction, with the per-row insert
+     * triggers switched off through import_active and the summary tables updated
+     * set-based instead. import_active is emptied again before the commit, so no
+     * other connection ever sees the triggers off, and the schema never changes.
+     */
+    private static void commitImportChunk(Connection conn, PreparedStatement pstmt) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // This takes the write lock, so no other writer can slip ids in
+            stmt.execute("INSERT INTO import_active (id) VALUES (1)");
+            long fromId;
+            try (ResultSet rs = stmt.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM leaderboard")) {
+                fromId = rs.next() ? rs.getLong(1) : 1;
+            }
+            pstmt.executeBatch();
+            long toId;
+            try (ResultSet rs = stmt.executeQuery(LAST_ID_SQL)) {
+                toId = rs.next() ? rs.getLong(1) : fromId - 1;
+            }
+            addToSummaries(conn, fromId, toId);
+            stmt.execute("DELETE FROM import_active");
+        }
+        conn.commit();
+    }
+
+    @Override
+    public long exportScores(Path file) throws IOException {
+        try {
+            return exportFile(file);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes every score, oldest first, to a CSV (by .csv extension) or JSON lines
+     * file and returns how many were written. Rows are streamed from the cursor, so
+     * table size does not affect memory use.
+     */
+    private long exportFile(Path file) throws IOException, SQLException {
+        ScoreFileFormat format = ScoreFileFormat.forPath(file);
+        long exported = 0;
+        try (Connection conn = openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(EXPORT_SQL,
+                 ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+            format.writeHeader(writer);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // Dates are written as stored, so an export imports back unchanged
+                    format.write(writer, rs.getString(1), rs.getInt(2), rs.getString(3));
+                    exported++;
+                }
+            }
+        }
+        return exported;
+    }
+
+    private void closeConnection() {
+        // Closing the connection also closes its cached statements, and data_version
+        // is only comparable within one connection
+        statements.clear();
+        topScores = null;
+        scoreCount = -1;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            connection = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeConnection();
+    }
+}
\ No newline at end of file
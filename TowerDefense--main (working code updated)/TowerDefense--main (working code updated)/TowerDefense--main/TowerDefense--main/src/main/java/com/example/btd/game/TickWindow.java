@@ -0,0 +1,70 @@
+package com.example.btd.game;
+
+import java.util.Arrays;
+
+/**
+ * The start time and duration of the most recent ticks, in a fixed ring, for
+ * rolling tick statistics: ticks per second, the last tick and percentiles over
+ * the window (1024 ticks, about 8.5 seconds of play).
+ *
+ * One thread records; others may read at any time without locking. Recording
+ * writes the slot first and publishes it through a volatile counter, so a reader
+ * sees every published tick, plus at worst one slot that is being overwritten
+ * while it copies, which only nudges a percentile.
+ */
+final class TickWindow {
+    private static final int SIZE = 1024;
+    private static final long SECOND = 1_000_000_000L;
+
+    private final long[] starts = new long[SIZE];
+    private final long[] durations = new long[SIZE];
+    private volatile long recorded;
+
+    void record(long startNanos, long durationNanos) {
+        int slot = (int) (recorded % SIZE);
+        starts[slot] = startNanos;
+        durations[slot] = durationNanos;
+        recorded = recorded + 1;
+    }
+
+    /**
+     * Duration of the most recent tick in nanoseconds, or 0 before the first one.
+     */
+    long getLastDuration() {
+        long count = recorded;
+        return count == 0 ? 0 : durations[(int) ((count - 1) % SIZE)];
+    }
+
+    /**
+     * Number of ticks that started during the last second.
+     */
+    int getTicksInLastSecond() {
+        long since = System.nanoTime() - SECOND;
+        int filled = (int) Math.min(recorded, SIZE);
+        int ticks = 0;
+        for (int i = 0; i < filled; i++) {
+            if (starts[i] - since > 0) {
+                ticks++;
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * The given percentiles (fractions 0..1) of the tick durations in the window,
+     * in nanoseconds, using the nearest rank; all 0 before the first tick.
+     */
+    long[] getPercentiles(double... fractions) {
+        int filled = (int) Math.min(recorded, SIZE);
+        long[] sorted = Arrays.copyOf(durations, filled);
+        Arrays.sort(sorted);
+        long[] values = new long[fractions.length];
+        if (filled > 0) {
+            for (int i = 0; i < fractions.length; i++) {
+                int rank = (int) Math.ceil(fractions[i] * filled);
+                values[i] = sorted[Math.max(0, rank - 1)];
+            }
+        }
+        return values;
+    }
+}
\ No newline at end of file
@@ -1,10 +1,5 @@
 package com.example.btd.game;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import java.util.List;
-import java.util.ArrayList;
-
 public class Tower {
     private double x, y;
     private int cost;
@@ -12,14 +7,12 @@ public class Tower {
     private double damage;
     private double attackSpeed;
     private double lastAttackTime;
-    private Image sprite;
     private String towerType;
     private double towerSize; // Dynamic size for towers
     private static final double TOWER_SIZE_RATIO = 0.05; // Tower size as percentage of map height
     private static final double RANGE_RATIO = 0.2; // Range as percentage of map size
-    private List<Projectile> projectiles;
-    private javafx.scene.paint.Color projectileColor;
-    private Enemy currentTarget;
+    private int projectileStyle;
+    private long currentTarget = EnemyStore.NO_ENEMY; // handle into the EnemyStore
     private boolean canSeeCamo; // Whether the tower can detect camo enemies
     private boolean isSelected; // Whether the tower is currently selected
     // Buff state for temporary power-ups
@@ -31,7 +24,7 @@ public class Tower {
         this.x = x;
         this.y = y;
         this.towerType = type;
-        this.towerSize = mapHeight * TOWER_SIZE_RATIO; // Tower size scales with map height
+        this.towerSize = sizeForMapHeight(mapHeight);
         
         // Set tower stats based on type
         switch(type.toLowerCase()) {
@@ -40,9 +33,6 @@ public class Tower {
                 this.range = 2.0 * Math.min(mapWidth, mapHeight) * RANGE_RATIO;
                 this.damage = 50;
                 this.attackSpeed = 0.5;
-                this.projectileColor = javafx.scene.paint.Color.RED;
-                String imagePath = this.getClass().getClassLoader().getResource("images/sniper_tower.png").toString();
-                this.sprite = new Image(imagePath);
                 this.canSeeCamo = true; // Sniper towers can detect camo
                 break;
             case "machine":
@@ -50,9 +40,6 @@ public class Tower {
                 this.range = 1.0 * Math.min(mapWidth, mapHeight) * RANGE_RATIO;
                 this.damage = 10;
                 this.attackSpeed = 3.0;
-                this.projectileColor = javafx.scene.paint.Color.LIGHTGREEN;
-                imagePath = this.getClass().getClassLoader().getResource("images/rapid_tower.png").toString();
-                this.sprite = new Image(imagePath);
                 this.canSeeCamo = false; // Machine gun towers can't detect camo
                 break;
             default: // Basic tower
@@ -60,108 +47,51 @@ public class Tower {
                 this.range = 1.5 * Math.min(mapWidth, mapHeight) * RANGE_RATIO;
                 this.damage = 20;
                 this.attackSpeed = 1.0;
-                imagePath = this.getClass().getClassLoader().getResource("images/basic_tower.png").toString();
-                this.sprite = new Image(imagePath);
-                this.projectileColor = javafx.scene.paint.Color.CYAN;
                 this.canSeeCamo = false; // Basic towers can't detect camo
                 break;
         }
         
         this.lastAttackTime = 0;
-        this.projectiles = new ArrayList<>();
         
-        // Set projectile color based on tower type
+        // Set projectile style based on tower type
         if (attackSpeed >= 2.0) {
-            projectileColor = javafx.scene.paint.Color.LIGHTGREEN; // Rapid fire tower
+            projectileStyle = ProjectilePool.STYLE_RAPID; // Rapid fire tower
         } else if (damage >= 30) {
-            projectileColor = javafx.scene.paint.Color.RED; // High damage tower
+            projectileStyle = ProjectilePool.STYLE_HEAVY; // High damage tower
         } else {
-            projectileColor = javafx.scene.paint.Color.CYAN; // Basic tower
-        }
-        
-        try {
-            // Map tower types to the existing resource names in /images
-            String spritePath = "/images/";
-            if (towerType != null) {
-                switch (towerType.toLowerCase()) {
-                    case "sniper":
-                        spritePath += "sniper_tower.png";
-                        break;
-                    case "machine":
-                        spritePath += "rapid_tower.png";
-                        break;
-                    default:
-                        spritePath += "basic_tower.png";
-                        break;
-                }
-            } else {
-                spritePath += "basic_tower.png";
-            }
-
-            java.io.InputStream is = getClass().getResourceAsStream(spritePath);
-            if (is != null) {
-                Image loaded = new Image(is);
-                if (!loaded.isError()) {
-                    this.sprite = loaded;
-                } else {
-                    throw new Exception("Image reported error for: " + spritePath);
-                }
-            } else {
-                throw new Exception("Resource not found: " + spritePath);
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading tower sprite: " + e.getMessage());
-            // Create a default colored rectangle as sprite based on tower type
-            javafx.scene.canvas.Canvas tempCanvas = new javafx.scene.canvas.Canvas(towerSize, towerSize);
-            javafx.scene.canvas.GraphicsContext gc = tempCanvas.getGraphicsContext2D();
-            
-            // Set color based on tower type (determined by stats)
-            if (attackSpeed >= 2.0) {
-                // Rapid Tower - Green
-                gc.setFill(javafx.scene.paint.Color.GREEN);
-            } else if (damage >= 30) {
-                // Sniper Tower - Red
-                gc.setFill(javafx.scene.paint.Color.RED);
-            } else {
-                // Basic Tower - Blue
-                gc.setFill(javafx.scene.paint.Color.BLUE);
-            }
-            
-            gc.fillRect(0, 0, towerSize, towerSize);
-            gc.setStroke(javafx.scene.paint.Color.WHITE);
-            gc.setLineWidth(2);
-            gc.strokeRect(0, 0, towerSize, towerSize);
-            this.sprite = tempCanvas.snapshot(null, null);
+            projectileStyle = ProjectilePool.STYLE_BASIC; // Basic tower
         }
     }
 
-    public Enemy getTarget(List<Enemy> enemies) {
-        if (currentTarget != null && !currentTarget.isDead() && !currentTarget.hasReachedEnd() &&
-            calculateDistance(currentTarget) <= range && (canSeeCamo || !currentTarget.isCamo())) {
-            return currentTarget;
-        }
-        
-        Enemy closest = null;
-        double closestDistance = range;
+    /**
+     * Size of every tower on a map of the given height.
+     */
+    public static double sizeForMapHeight(double mapHeight) {
+        return mapHeight * TOWER_SIZE_RATIO; // Tower size scales with map height
+    }
 
-        for (Enemy enemy : enemies) {
-            if (!enemy.isDead() && (canSeeCamo || !enemy.isCamo())) {
-                double distance = calculateDistance(enemy);
-                if (distance <= range && (closest == null || distance < closestDistance)) {
-                    closest = enemy;
-                    closestDistance = distance;
-                }
-            }
+    /**
+     * Keeps the current target while it stays alive and in range, otherwise picks the
+     * closest visible enemy from the grid (camo is filtered inside the query).
+     * Returns the target's slot in the EnemyStore, or -1 if nothing is in range.
+     */
+    public int getTarget(EnemyStore enemies, EnemyGrid grid) {
+        int slot = enemies.resolve(currentTarget);
+        if (slot >= 0 && !enemies.isDead(slot) && !enemies.hasReachedEnd(slot) &&
+            distanceSquared(enemies, slot) <= range * range &&
+            (canSeeCamo || !enemies.hasFlag(slot, EnemyStore.FLAG_CAMO))) {
+            return slot;
         }
 
-        currentTarget = closest;
-        return closest;
+        slot = grid.findNearest(x, y, range, canSeeCamo);
+        currentTarget = slot >= 0 ? enemies.handleOf(slot) : EnemyStore.NO_ENEMY;
+        return slot;
     }
 
-    private double calculateDistance(Enemy enemy) {
-        double dx = x - enemy.getX();
-        double dy = y - enemy.getY();
-        return Math.sqrt(dx * dx + dy * dy);
+    private double distanceSquared(EnemyStore enemies, int slot) {
+        double dx = x - enemies.getX(slot);
+        double dy = y - enemies.getY(slot);
+        return dx * dx + dy * dy;
     }
 
     public boolean isReadyToShoot() {
@@ -172,22 +102,26 @@ public class Tower {
         return lastAttackTime >= 1.0 / effectiveAttackSpeed;
     }
 
-    public Projectile createProjectile(Enemy target) {
+    /**
+     * Fires at the enemy in the given slot, taking a projectile from the pool.
+     * The shot still uses up the cooldown if the pool is full and drops it.
+     */
+    public void fireAt(EnemyStore enemies, int target, ProjectilePool projectiles) {
         lastAttackTime = 0;
         double currentDamage = damage;
         if (isBuffed && towerType != null && towerType.equalsIgnoreCase("machine")) {
             currentDamage *= BUFF_MULTIPLIER;
         }
-        return new Projectile(
+        projectiles.fire(
             x, y,  // start position (tower center)
-            target.getX(), target.getY(),  // target position
+            enemies.getX(target), enemies.getY(target),  // target position
             currentDamage,  // projectile damage (may be buffed)
-            projectileColor,  // color based on tower type
+            projectileStyle,  // color based on tower type
             towerSize * 0.2  // projectile size
         );
     }
     
-    public void update(double deltaTime, List<Enemy> enemies) {
+    public void update(double deltaTime) {
         lastAttackTime += deltaTime;
         // Update buff timer
         if (isBuffed) {
@@ -199,28 +133,6 @@ public class Tower {
         }
     }
 
-    public void render(GraphicsContext gc) {
-        // Draw range circle only when selected
-        if (isSelected) {
-            gc.setLineWidth(2);
-            gc.setStroke(javafx.scene.paint.Color.GREY); // Grey outline
-            gc.strokeOval(x - range, y - range, range * 2, range * 2);
-        }
-        
-        // Draw all active projectiles
-        projectiles.forEach(projectile -> projectile.render(gc));
-        
-        // Draw buff indicator (gold halo) when buffed
-        if (isBuffed) {
-            gc.setStroke(javafx.scene.paint.Color.GOLD);
-            gc.setLineWidth(3);
-            gc.strokeOval(x - towerSize/2 - 4, y - towerSize/2 - 4, towerSize + 8, towerSize + 8);
-        }
-
-        // Draw tower sprite
-        gc.drawImage(sprite, x - towerSize / 2, y - towerSize / 2, towerSize, towerSize);
-    }
-
     /**
      * Apply a buff to this tower (only affects machine towers).
      * duration: seconds
@@ -251,8 +163,6 @@ public class Tower {
     public double getY() { return y; }
     public double getSize() { return towerSize; }
     public double getRange() { return range; }
-
-    public void checkCollisions(List<Enemy> enemies) {
-        // Implement projectile collision if needed
-    }
+    public String getType() { return towerType; }
+    public boolean isBuffed() { return isBuffed; }
 }
\ No newline at end of file
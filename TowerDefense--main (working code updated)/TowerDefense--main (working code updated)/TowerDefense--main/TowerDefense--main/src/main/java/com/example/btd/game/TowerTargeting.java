@@ -0,0 +1,121 @@
+package com.example.btd.game;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The read phase of the tower step: every tower advances its own timers and picks
+ * its target, and the outcome is kept per tower for GameSimulation to apply in
+ * tower order afterwards. A tower only writes its own fields here and only reads
+ * the enemies and the grid, so towers are independent of each other and the
+ * phase gives the same result however it is split up.
+ *
+ * From parallelThreshold towers on, and with more than one core, the towers are
+ * cut into chunks that run on the common fork/join pool, with the calling thread
+ * taking part. The chunk tasks are reused from tick to tick. Smaller boards run
+ * on the calling thread, where handing out work would cost more than it saves.
+ */
+final class TowerTargeting {
+    static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+    // Fewer towers than this per chunk are not worth a task
+    private static final int MIN_CHUNK_SIZE = 32;
+    // Several chunks per thread even out towers that see more enemies than others
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private int[] shotTargets = new int[64];
+    private boolean[] buffChanged = new boolean[64];
+    private Chunk[] chunks = new Chunk[0];
+
+    // Inputs of the current run, read by the chunks
+    private List<Tower> towers;
+    private EnemyStore enemies;
+    private EnemyGrid grid;
+    private double deltaTime;
+
+    /**
+     * Runs the read phase for every tower. Afterwards getShotTarget and
+     * isBuffChanged describe tower i until the next run.
+     */
+    void run(List<Tower> towers, EnemyStore enemies, EnemyGrid grid, double deltaTime) {
+        int count = towers.size();
+        if (shotTargets.length < count) {
+            int capacity = Math.max(count, shotTargets.length * 2);
+            shotTargets = new int[capacity];
+            buffChanged = new boolean[capacity];
+        }
+        this.towers = towers;
+        this.enemies = enemies;
+        this.grid = grid;
+        this.deltaTime = deltaTime;
+
+        if (count >= parallelThreshold && Runtime.getRuntime().availableProcessors() > 1) {
+            runParallel(count);
+        } else {
+            target(0, count);
+        }
+    }
+
+    /**
+     * Slot of the enemy tower i shoots at this tick, or -1 if it does not shoot.
+     */
+    int getShotTarget(int tower) {
+        return shotTargets[tower];
+    }
+
+    /**
+     * Whether tower i's buff started or ran out this tick.
+     */
+    boolean isBuffChanged(int tower) {
+        return buffChanged[tower];
+    }
+
+    void setParallelThreshold(int towers) {
+        parallelThreshold = towers;
+    }
+
+    private void target(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Tower tower = towers.get(i);
+            boolean wasBuffed = tower.isBuffed();
+            tower.update(deltaTime);
+            buffChanged[i] = tower.isBuffed() != wasBuffed;
+            int target = tower.getTarget(enemies, grid);
+            shotTargets[i] = target >= 0 && tower.isReadyToShoot() ? target : -1;
+        }
+    }
+
+    private void runParallel(int count) {
+        int threads = ForkJoinPool.getCommonPoolParallelism() + 1;
+        int chunkCount = Math.max(1, Math.min(threads * CHUNKS_PER_THREAD, count / MIN_CHUNK_SIZE));
+        if (chunks.length != chunkCount) {
+            chunks = new Chunk[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                chunks[c] = new Chunk();
+            }
+        }
+        int chunkSize = (count + chunkCount - 1) / chunkCount;
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            chunk.reinitialize();
+            chunk.from = Math.min(count, c * chunkSize);
+            chunk.to = Math.min(count, (c + 1) * chunkSize);
+        }
+        // Forks all but the first chunk, runs that one here and waits for the rest
+        ForkJoinTask.invokeAll(chunks);
+    }
+
+    private final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        int from;
+        int to;
+
+        @Override
+        protected void compute() {
+            target(from, to);
+        }
+    }
+}
\ No newline at end of file
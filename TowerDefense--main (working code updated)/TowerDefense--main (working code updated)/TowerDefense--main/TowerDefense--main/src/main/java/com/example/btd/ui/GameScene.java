@@ -3,18 +3,30 @@ package com.example.btd.ui;
 import javafx.scene.layout.Pane;
 import javafx.scene.canvas.Canvas;
 import com.example.btd.game.GameManager;
+import com.example.btd.game.GameMetrics;
+import com.example.btd.game.LeaderboardManager;
 
 public class GameScene extends Pane {
+    private Canvas mapCanvas;
+    private Canvas towerCanvas;
     private Canvas gameCanvas;
     private GameManager gameManager;
+    private final GameMetrics gameMetrics;
     private double gameAreaWidth;
-    private javafx.animation.AnimationTimer gameOverChecker;
 
-    public GameScene(double gameAreaWidth, double gameAreaHeight, double panelWidth, String playerName) {
+    public GameScene(double gameAreaWidth, double gameAreaHeight, double panelWidth, String playerName,
+                     LeaderboardManager leaderboardManager, GameMetrics gameMetrics) {
         this.gameAreaWidth = gameAreaWidth;
+        this.gameMetrics = gameMetrics;
+        // Stacked layers: static map, towers, then moving entities on top (which also takes input)
+        mapCanvas = new Canvas(gameAreaWidth, gameAreaHeight);
+        towerCanvas = new Canvas(gameAreaWidth, gameAreaHeight);
         gameCanvas = new Canvas(gameAreaWidth, gameAreaHeight);
-        getChildren().add(gameCanvas);
-        gameManager = new GameManager(gameCanvas, playerName);
+        mapCanvas.setMouseTransparent(true);
+        towerCanvas.setMouseTransparent(true);
+        getChildren().addAll(mapCanvas, towerCanvas, gameCanvas);
+        gameManager = new GameManager(mapCanvas, towerCanvas, gameCanvas, playerName, leaderboardManager);
+        gameMetrics.attach(gameManager);
 
         // Add mouse event handler for tower selection and deletion
         gameCanvas.setOnMouseClicked(event -> {
@@ -47,16 +59,18 @@ public class GameScene extends Pane {
             }
         });
         
-        // Add escape key handler to cancel preview
+        // Escape cancels the preview, F3 toggles the frame timing overlay
         gameCanvas.setOnKeyPressed(event -> {
             if (event.getCode() == javafx.scene.input.KeyCode.ESCAPE) {
                 gameManager.cancelTowerPreview();
+            } else if (event.getCode() == javafx.scene.input.KeyCode.F3) {
+                gameManager.toggleDebugOverlay();
             }
         });
         gameCanvas.setFocusTraversable(true);
 
         setupGameUI(panelWidth);
-        setupGameOverChecker();
+        setupGameOverListener();
     }
 
     private void showRefundMessage(double x, double y) {
@@ -88,17 +102,12 @@ public class GameScene extends Pane {
         floatUp.play();
     }
 
-    private void setupGameOverChecker() {
-        gameOverChecker = new javafx.animation.AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                if (gameManager.isGameOver()) {
-                    showGameOverScreen();
-                    gameOverChecker.stop();
-                }
+    private void setupGameOverListener() {
+        gameManager.gameOverProperty().addListener((obs, wasOver, isOver) -> {
+            if (isOver) {
+                showGameOverScreen();
             }
-        };
-        gameOverChecker.start();
+        });
     }
 
     private void showGameOverScreen() {
@@ -118,6 +127,26 @@ public class GameScene extends Pane {
         );
         scoreText.setStyle("-fx-fill: white; -fx-font-size: 24;");
 
+        // Save status, updated once the background writer has committed the score
+        javafx.scene.text.Text saveStatusText = new javafx.scene.text.Text("Saving score\u2026");
+        saveStatusText.setStyle("-fx-fill: lightgray; -fx-font-size: 16;");
+        // Player's totals including this game, shown once the score is in the database
+        javafx.scene.text.Text statsText = new javafx.scene.text.Text();
+        statsText.setStyle("-fx-fill: white; -fx-font-size: 18;");
+        LeaderboardManager leaderboardManager = gameManager.getLeaderboardManager();
+        String playerName = gameManager.getPlayerName();
+        // Async, so the stats query runs on a pool thread rather than the writer's
+        gameManager.getScoreSubmission().whenCompleteAsync((ignored, error) -> {
+            com.example.btd.game.PlayerStats stats = leaderboardManager.getPlayerStats(playerName);
+            javafx.application.Platform.runLater(() -> {
+                saveStatusText.setText(error == null ? "Score saved" : "Could not save score");
+                if (stats != null) {
+                    statsText.setText(String.format("Games played: %d   Best: %d   Average: %.0f",
+                        stats.getGamesPlayed(), stats.getBestScore(), stats.getAverageScore()));
+                }
+            });
+        });
+
         // Create buttons
         javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(20);
         buttons.setAlignment(javafx.geometry.Pos.CENTER);
@@ -132,7 +161,7 @@ public class GameScene extends Pane {
 
         buttons.getChildren().addAll(restartButton, leaderboardButton);
 
-        gameOverPane.getChildren().addAll(gameOverText, scoreText, buttons);
+        gameOverPane.getChildren().addAll(gameOverText, scoreText, saveStatusText, statsText, buttons);
         getChildren().add(gameOverPane);
     }
 
@@ -153,7 +182,8 @@ public class GameScene extends Pane {
             double newGameAreaHeight = screenBounds.getHeight();
             double newPanelWidth = screenBounds.getWidth() * 0.2;
             
-            GameScene newGameScene = new GameScene(newGameAreaWidth, newGameAreaHeight, newPanelWidth, playerName);
+            GameScene newGameScene = new GameScene(newGameAreaWidth, newGameAreaHeight, newPanelWidth, playerName,
+                gameManager.getLeaderboardManager(), gameMetrics);
             stage.getScene().setRoot(newGameScene);
         });
     }
@@ -190,27 +220,94 @@ public class GameScene extends Pane {
         javafx.scene.text.Text title = new javafx.scene.text.Text("Top Scores");
         title.setStyle("-fx-font-size: 24; -fx-font-weight: bold;");
         
-        // Get scores from LeaderboardManager
-        javafx.scene.layout.VBox scoresList = new javafx.scene.layout.VBox(5);
-        scoresList.setStyle("-fx-padding: 10;");
-        
-        // Load and display actual scores
-        gameManager.showLeaderboard();
-        java.util.List<com.example.btd.game.LeaderboardEntry> scores = gameManager.getLeaderboardManager().getTopScores(10);
-        
-        for (com.example.btd.game.LeaderboardEntry score : scores) {
-            javafx.scene.text.Text scoreText = new javafx.scene.text.Text(
-                String.format("%s - %d points", score.getPlayerName(), score.getScore())
-            );
-            scoreText.setStyle("-fx-font-size: 16;");
-            scoresList.getChildren().add(scoreText);
+        // Every score, fetched a page at a time as the list scrolls; every query runs on a pool thread
+        com.example.btd.game.LeaderboardManager leaderboardManager = gameManager.getLeaderboardManager();
+        javafx.scene.control.ListView<com.example.btd.game.LeaderboardEntry> scoresList =
+            new javafx.scene.control.ListView<>();
+        scoresList.setPlaceholder(new javafx.scene.control.Label("Loading\u2026"));
+        scoresList.setFixedCellSize(28);
+        scoresList.setPrefHeight(360);
+        scoresList.setCellFactory(list -> new javafx.scene.control.ListCell<>() {
+            @Override
+            protected void updateItem(com.example.btd.game.LeaderboardEntry score, boolean empty) {
+                super.updateItem(score, empty);
+                if (empty) {
+                    setText(null);
+                } else if (score == null) {
+                    // Its page is still loading
+                    setText(String.format("#%d  \u2026", getIndex() + 1));
+                } else {
+                    setText(String.format("#%d  %s - %d points", getIndex() + 1, score.getPlayerName(), score.getScore()));
+                }
+                setStyle("-fx-font-size: 16;");
+            }
+        });
+        // Period selector: all time pages through every score, today/this week show the stored top list
+        javafx.beans.property.ObjectProperty<com.example.btd.game.LeaderboardPeriod> shownPeriod =
+            new javafx.beans.property.SimpleObjectProperty<>(com.example.btd.game.LeaderboardPeriod.ALL_TIME);
+        javafx.scene.layout.HBox periodButtons = new javafx.scene.layout.HBox(5);
+        periodButtons.setAlignment(javafx.geometry.Pos.CENTER);
+        javafx.scene.control.ToggleGroup periodGroup = new javafx.scene.control.ToggleGroup();
+        for (com.example.btd.game.LeaderboardPeriod period : new com.example.btd.game.LeaderboardPeriod[] {
+                com.example.btd.game.LeaderboardPeriod.ALL_TIME,
+                com.example.btd.game.LeaderboardPeriod.WEEKLY,
+                com.example.btd.game.LeaderboardPeriod.DAILY}) {
+            javafx.scene.control.ToggleButton periodButton = new javafx.scene.control.ToggleButton(period.getDisplayName());
+            periodButton.setToggleGroup(periodGroup);
+            periodButton.setSelected(period == com.example.btd.game.LeaderboardPeriod.ALL_TIME);
+            periodButton.setOnAction(e -> {
+                if (!periodButton.isSelected()) {
+                    // Keep one period selected
+                    periodButton.setSelected(true);
+                    return;
+                }
+                shownPeriod.set(period);
+                scoresList.setItems(null);
+                if (period == com.example.btd.game.LeaderboardPeriod.ALL_TIME) {
+                    showAllTime(scoresList, shownPeriod, leaderboardManager);
+                } else {
+                    java.util.concurrent.CompletableFuture.supplyAsync(() -> leaderboardManager.getTopScores(period, 100))
+                        .thenAccept(scores -> javafx.application.Platform.runLater(() -> {
+                            // Unless another period has been picked in the meantime
+                            if (shownPeriod.get() == period) {
+                                scoresList.setItems(javafx.collections.FXCollections.observableArrayList(scores));
+                            }
+                        }));
+                }
+            });
+            periodButtons.getChildren().add(periodButton);
+        }
+        leaderboardContent.getChildren().addAll(title, periodButtons);
+
+        // After a game, show where the player placed and scroll there
+        if (gameManager.isGameOver()) {
+            javafx.scene.text.Text rankText = new javafx.scene.text.Text("Finding your rank\u2026");
+            rankText.setStyle("-fx-font-size: 16;");
+            leaderboardContent.getChildren().add(rankText);
+            int score = gameManager.getScore();
+            // Once the score is stored; the list starts at the player's score, found by index seek
+            gameManager.getScoreSubmission().whenCompleteAsync((ignored, error) -> {
+                LeaderboardPageList ranked = LeaderboardPageList.fromScore(leaderboardManager, score);
+                double percentile = leaderboardManager.getPercentile(score);
+                javafx.application.Platform.runLater(() -> {
+                    rankText.setText(String.format("Your rank: #%d (better than %.1f%% of scores)",
+                        ranked.getStart() + 1L, percentile));
+                    // Unless another period has been picked in the meantime
+                    if (shownPeriod.get() == com.example.btd.game.LeaderboardPeriod.ALL_TIME) {
+                        scoresList.setItems(ranked);
+                        scoresList.scrollTo(ranked.getStart());
+                    }
+                });
+            });
+        } else {
+            showAllTime(scoresList, shownPeriod, leaderboardManager);
         }
         
         // Add close button
         javafx.scene.control.Button closeButton = new javafx.scene.control.Button("Close");
         closeButton.setOnAction(e -> leaderboardStage.close());
         
-        leaderboardContent.getChildren().addAll(title, scoresList, closeButton);
+        leaderboardContent.getChildren().addAll(scoresList, closeButton);
         leaderboardContent.setAlignment(javafx.geometry.Pos.CENTER);
         
         // Set up the scene
@@ -218,4 +315,19 @@ public class GameScene extends Pane {
         leaderboardStage.setScene(leaderboardScene);
         leaderboardStage.show();
     }
+
+    /**
+     * Loads the all-time list from the top on a pool thread and shows it, unless
+     * another period has been picked by the time it arrives.
+     */
+    private static void showAllTime(javafx.scene.control.ListView<com.example.btd.game.LeaderboardEntry> scoresList,
+                                    javafx.beans.value.ObservableValue<com.example.btd.game.LeaderboardPeriod> shownPeriod,
+                                    com.example.btd.game.LeaderboardManager leaderboardManager) {
+        java.util.concurrent.CompletableFuture.supplyAsync(() -> LeaderboardPageList.fromTop(leaderboardManager))
+            .thenAccept(list -> javafx.application.Platform.runLater(() -> {
+                if (shownPeriod.getValue() == com.example.btd.game.LeaderboardPeriod.ALL_TIME) {
+                    scoresList.setItems(list);
+                }
+            }));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.example.btd.ui;
+
+import com.example.btd.game.LeaderboardEntry;
+import com.example.btd.game.LeaderboardManager;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-only list over the whole leaderboard that loads entries a page at a time.
+ *
+ * A ListView only asks for the rows it is about to show, so backing it with this
+ * list keeps the leaderboard window cheap no matter how many scores are stored.
+ * Pages are queried on a pool thread: a row whose page has not arrived yet reads
+ * as null, and the list reports the page's rows as replaced once it is in.
+ *
+ * A list is created with its count and a first page:
+ * either the top one, or the one starting at a given score, found by seeking the
+ * score index rather than skipping an offset. Pages are laid out around that first
+ * page, and a page next to a loaded one continues from its last or first entry
+ * (keyset paging), so scrolling either way from it stays cheap. Only a jump to a
+ * far-away position, such as dragging the scroll bar, falls back to an offset
+ * query. The most recently used pages are kept; older ones are dropped.
+ */
+class LeaderboardPageList extends ObservableListBase<LeaderboardEntry> {
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private final LeaderboardManager leaderboardManager;
+    private final int size;
+    private final int start;
+    // Page k covers [origin + (k - 1) * PAGE_SIZE, origin + k * PAGE_SIZE); page 0 is
+    // the stub before the first full page, empty when origin is 0
+    private final int origin;
+    private final Map<Integer, List<LeaderboardEntry>> pages =
+        new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<LeaderboardEntry>> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
+    private final Set<Integer> loading = new HashSet<>();
+    // Pages asked for while a neighbour was loading, to be continued from it
+    private final Set<Integer> waiting = new HashSet<>();
+
+    private LeaderboardPageList(LeaderboardManager leaderboardManager, long count, long start,
+                                List<LeaderboardEntry> firstPage) {
+        this.leaderboardManager = leaderboardManager;
+        this.size = (int) Math.min(Integer.MAX_VALUE, count);
+        this.start = (int) Math.min(size, start);
+        this.origin = this.start % PAGE_SIZE;
+        pages.put(pageOf(this.start), firstPage);
+    }
+
+    /**
+     * Counts the scores and fetches the top page. Runs queries, so call it off the
+     * JavaFX thread; nothing observes the list yet, so it may be built there.
+     */
+    static LeaderboardPageList fromTop(LeaderboardManager leaderboardManager) {
+        return new LeaderboardPageList(leaderboardManager,
+            leaderboardManager.getScoreCount(), 0, leaderboardManager.getPage(0, PAGE_SIZE));
+    }
+
+    /**
+     * As fromTop, but the first page starts at the best score not above the given
+     * one, which is at getStart().
+     */
+    static LeaderboardPageList fromScore(LeaderboardManager leaderboardManager, int score) {
+        return new LeaderboardPageList(leaderboardManager,
+            leaderboardManager.getScoreCount(), leaderboardManager.getRank(score) - 1,
+            leaderboardManager.getPageFrom(score, PAGE_SIZE));
+    }
+
+    /**
+     * Position of the first page's first entry.
+     */
+    int getStart() {
+        return start;
+    }
+
+    @Override
+    public LeaderboardEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int pageIndex = pageOf(index);
+        List<LeaderboardEntry> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = index - pageStart(pageIndex);
+        // The table may have changed since the list was sized; show a blank row then
+        return offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int pageOf(int index) {
+        return Math.floorDiv(index - origin, PAGE_SIZE) + 1;
+    }
+
+    private int pageStart(int pageIndex) {
+        return Math.max(0, origin + (pageIndex - 1) * PAGE_SIZE);
+    }
+
+    private int pageEnd(int pageIndex) {
+        return Math.min(size, origin + pageIndex * PAGE_SIZE);
+    }
+
+    private boolean isFull(List<LeaderboardEntry> page, int pageIndex) {
+        return page != null && !page.isEmpty() && page.size() == pageEnd(pageIndex) - pageStart(pageIndex);
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loading.contains(pageIndex)) return;
+        int length = pageEnd(pageIndex) - pageStart(pageIndex);
+        List<LeaderboardEntry> previous = pages.get(pageIndex - 1);
+        List<LeaderboardEntry> next = pages.get(pageIndex + 1);
+        CompletableFuture<List<LeaderboardEntry>> query;
+        if (isFull(previous, pageIndex - 1)) {
+            LeaderboardEntry after = previous.get(previous.size() - 1);
+            query = CompletableFuture.supplyAsync(() -> leaderboardManager.getPageAfter(after, length));
+        } else if (isFull(next, pageIndex + 1)) {
+            LeaderboardEntry before = next.get(0);
+            query = CompletableFuture.supplyAsync(() -> leaderboardManager.getPageBefore(before, length));
+        } else if (loading.contains(pageIndex - 1) || loading.contains(pageIndex + 1)) {
+            waiting.add(pageIndex);
+            return;
+        } else {
+            long offset = pageStart(pageIndex);
+            query = CompletableFuture.supplyAsync(() -> leaderboardManager.getPage(offset, length));
+        }
+        loading.add(pageIndex);
+        query.thenAccept(page -> Platform.runLater(() -> pageLoaded(pageIndex, page)));
+    }
+
+    private void pageLoaded(int pageIndex, List<LeaderboardEntry> page) {
+        loading.remove(pageIndex);
+        pages.put(pageIndex, page);
+        int from = pageStart(pageIndex);
+        int to = pageEnd(pageIndex);
+        beginChange();
+        nextReplace(from, to, Collections.nCopies(to - from, null));
+        endChange();
+
+        List<Integer> retry = new ArrayList<>(waiting);
+        waiting.clear();
+        for (int waitingIndex : retry) {
+            if (!pages.containsKey(waitingIndex)) {
+                requestPage(waitingIndex);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -35,39 +35,25 @@ public class TowerSelectionPanel extends VBox {
         button.setWrapText(true);
         button.setStyle("-fx-padding: 10; -fx-font-size: 12;");
         
-        // Set initial state based on money
-        button.setDisable(gameManager.getMoney() < cost);
-        
-        // Update button state when money changes
-        javafx.animation.AnimationTimer moneyCheck = new javafx.animation.AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                button.setDisable(gameManager.getMoney() < cost);
-            }
-        };
-        moneyCheck.start();
+        // Disabled while unaffordable, or while this button's preview is waiting for placement
+        javafx.beans.property.BooleanProperty previewing = new javafx.beans.property.SimpleBooleanProperty(false);
+        button.disableProperty().bind(gameManager.moneyProperty().lessThan(cost).or(previewing));
         
         button.setOnAction(e -> {
             if (gameManager.getMoney() >= cost) {
-                button.setDisable(true);
+                previewing.set(true);
                 
                 // Start tower preview mode
                 gameManager.startTowerPreview(towerType);
                 button.setText(name + "\nCost: $" + cost + "\n(Press ESC to cancel)");
-                
-                // Wait for tower placement or cancellation
-                javafx.animation.AnimationTimer previewWaiter = new javafx.animation.AnimationTimer() {
-                    @Override
-                    public void handle(long now) {
-                        if (!gameManager.isPreviewActive()) {
-                            // Preview was cancelled or tower was placed
-                            button.setText(name + "\nCost: $" + cost);
-                            button.setDisable(gameManager.getMoney() < cost);
-                            stop();
-                        }
-                    }
-                };
-                previewWaiter.start();
+            }
+        });
+        
+        // Preview was cancelled or tower was placed
+        gameManager.previewActiveProperty().addListener((obs, wasActive, isActive) -> {
+            if (!isActive && previewing.get()) {
+                button.setText(name + "\nCost: $" + cost);
+                previewing.set(false);
             }
         });
         
@@ -86,8 +72,12 @@ public class TowerSelectionPanel extends VBox {
         speedSlider.setShowTickLabels(true);
         speedSlider.setShowTickMarks(true);
         speedSlider.setMajorTickUnit(0.5);
+        speedSlider.setMinorTickCount(4);
+        speedSlider.setSnapToTicks(true); // Steps of 0.1
         speedSlider.setBlockIncrement(0.1);
         speedSlider.setPrefWidth(PANEL_WIDTH - 20);
+        // Bound both ways, so a speed set over JMX moves the slider too
+        speedSlider.valueProperty().bindBidirectional(gameManager.gameSpeedProperty());
         
         HBox speedDisplay = new HBox(5);
         Text currentSpeedLabel = new Text("Current: ");
@@ -100,7 +90,6 @@ public class TowerSelectionPanel extends VBox {
         speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             double roundedSpeed = Math.round(newVal.doubleValue() * 10) / 10.0; // Round to nearest 0.1
             currentSpeedValue.setText(String.format("%.1fx", roundedSpeed));
-            gameManager.setGameSpeed(roundedSpeed);
         });
         
         speedControls.getChildren().addAll(speedTitle, speedSlider, speedDisplay);
@@ -109,46 +98,30 @@ public class TowerSelectionPanel extends VBox {
         // Add game information display
         HBox healthBox = new HBox(5);
         Text healthLabel = new Text("Health: ");
-        Text healthValue = new Text(String.valueOf(gameManager.getPlayerHealth()));
+        Text healthValue = new Text();
+        healthValue.textProperty().bind(gameManager.playerHealthProperty().asString());
         healthBox.getChildren().addAll(healthLabel, healthValue);
 
         HBox moneyBox = new HBox(5);
         Text moneyLabel = new Text("Money: ");
-        Text moneyValue = new Text(String.valueOf(gameManager.getMoney()));
+        Text moneyValue = new Text();
+        moneyValue.textProperty().bind(gameManager.moneyProperty().asString());
         moneyBox.getChildren().addAll(moneyLabel, moneyValue);
 
-        // Update health and money display continuously
-        javafx.animation.AnimationTimer uiUpdater = new javafx.animation.AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                healthValue.setText(String.valueOf(gameManager.getPlayerHealth()));
-                moneyValue.setText(String.valueOf(gameManager.getMoney()));
-            }
-        };
-        uiUpdater.start();
-
         // Create wave display
         HBox waveBox = new HBox(5);
         Text waveLabel = new Text("Wave: ");
-        Text waveValue = new Text(String.valueOf(gameManager.getWaveNumber()));
+        Text waveValue = new Text();
+        waveValue.textProperty().bind(gameManager.waveNumberProperty().asString());
         waveBox.getChildren().addAll(waveLabel, waveValue);
         waveBox.setStyle("-fx-font-size: 16; -fx-font-weight: bold;");
         
         // Score display
         HBox scoreBox = new HBox(5);
         Text scoreLabel = new Text("Score: ");
-        Text scoreValue = new Text(String.valueOf(gameManager.getScore()));
+        Text scoreValue = new Text();
+        scoreValue.textProperty().bind(gameManager.scoreProperty().asString());
         scoreBox.getChildren().addAll(scoreLabel, scoreValue);
-        
-        // Update wave and score display continuously
-        javafx.animation.AnimationTimer statsUpdater = new javafx.animation.AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                waveValue.setText(String.valueOf(gameManager.getWaveNumber()));
-                scoreValue.setText(String.valueOf(gameManager.getScore()));
-            }
-        };
-        statsUpdater.start();
 
         // Add speed indicator
         HBox speedBox = new HBox(5);
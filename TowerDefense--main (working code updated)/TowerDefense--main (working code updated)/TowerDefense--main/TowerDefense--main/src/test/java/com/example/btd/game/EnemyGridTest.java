@@ -0,0 +1,184 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the grid queries against a scan of every enemy. The map is 1000x800, so
+ * cells are 64 pixels wide; many enemies and queries sit exactly on cell edges
+ * or outside the map, where positions are clamped into the border cells.
+ */
+class EnemyGridTest {
+    private static final double WIDTH = 1000;
+    private static final double HEIGHT = 800;
+    private static final double CELL = 64;
+
+    @Test
+    void nearestMatchesScanOfEveryEnemy() {
+        Random random = new Random(42);
+        EnemyStore enemies = randomEnemies(random, 500);
+        EnemyGrid grid = grid(enemies);
+        for (int query = 0; query < 5000; query++) {
+            double x = coordinate(random, WIDTH);
+            double y = coordinate(random, HEIGHT);
+            // Ranges that end on a cell edge as well as arbitrary ones
+            double range = random.nextBoolean() ? CELL * random.nextInt(5) : random.nextDouble() * 300;
+            boolean canSeeCamo = random.nextBoolean();
+            assertEquals(scanNearest(enemies, x, y, range, canSeeCamo), grid.findNearest(x, y, range, canSeeCamo),
+                "findNearest(" + x + ", " + y + ", " + range + ", " + canSeeCamo + ")");
+        }
+    }
+
+    @Test
+    void nearestIncludesEnemyExactlyAtRangeInNextCell() {
+        EnemyStore enemies = enemiesAt(new double[] {3 * CELL, 100});
+        EnemyGrid grid = grid(enemies);
+        assertEquals(0, grid.findNearest(3 * CELL - 10, 100, 10, false));
+        assertEquals(-1, grid.findNearest(3 * CELL - 10.5, 100, 10, false));
+    }
+
+    @Test
+    void nearestBreaksTiesByLowerSlotWhateverTheCell() {
+        // Slot 0 is in the cell visited last, slot 1 in the cell visited first
+        EnemyStore enemies = enemiesAt(new double[] {2 * CELL + 20, 2 * CELL + 20}, new double[] {2 * CELL - 20, 2 * CELL - 20});
+        EnemyGrid grid = grid(enemies);
+        assertEquals(0, grid.findNearest(2 * CELL, 2 * CELL, 100, false));
+    }
+
+    @Test
+    void nearestSkipsDeadAndUnseenCamoEnemies() {
+        EnemyStore enemies = new EnemyStore(path(), HEIGHT);
+        enemies.moveTo(enemies.spawn(100, 10, 5, EnemyStore.FLAG_CAMO, EnemyStore.APPEARANCE_CAMO), 100, 100);
+        enemies.moveTo(enemies.spawn(100, 10, 5, 0, EnemyStore.APPEARANCE_NORMAL), 110, 100);
+        enemies.moveTo(enemies.spawn(100, 10, 5, 0, EnemyStore.APPEARANCE_NORMAL), 130, 100);
+        enemies.takeDamage(1, 1000);
+        EnemyGrid grid = grid(enemies);
+
+        assertEquals(2, grid.findNearest(100, 100, 50, false));
+        assertEquals(0, grid.findNearest(100, 100, 50, true));
+    }
+
+    @Test
+    void nearestFindsEnemiesOutsideTheMap() {
+        EnemyStore enemies = enemiesAt(new double[] {-30, 400}, new double[] {WIDTH + 30, HEIGHT + 30});
+        EnemyGrid grid = grid(enemies);
+        assertEquals(0, grid.findNearest(10, 400, 50, false));
+        assertEquals(1, grid.findNearest(WIDTH - 10, HEIGHT - 10, 60, false));
+    }
+
+    @Test
+    void firstHitMatchesScanOfEveryEnemy() {
+        Random random = new Random(43);
+        EnemyStore enemies = randomEnemies(random, 500);
+        EnemyGrid grid = grid(enemies);
+        for (int query = 0; query < 5000; query++) {
+            double x = coordinate(random, WIDTH);
+            double y = coordinate(random, HEIGHT);
+            double size = random.nextDouble() * 40;
+            assertEquals(scanFirstHit(enemies, x, y, size), grid.findFirstHit(x, y, size),
+                "findFirstHit(" + x + ", " + y + ", " + size + ")");
+        }
+    }
+
+    @Test
+    void firstHitReachesIntoNextCellButNotOnContact() {
+        EnemyStore enemies = enemiesAt(new double[] {3 * CELL, 100});
+        EnemyGrid grid = grid(enemies);
+        // Enemies are 24 pixels across on an 800 pixel high map, so an 8 pixel shot touches at 16
+        assertEquals(0, grid.findFirstHit(3 * CELL - 15.5, 100, 8));
+        assertEquals(-1, grid.findFirstHit(3 * CELL - 16, 100, 8));
+    }
+
+    @Test
+    void firstHitTakesLowestSlotAndIncludesDeadAndCamoEnemies() {
+        // As with the old per-object collision check, an enemy killed earlier in the
+        // tick still stops shots until it is removed, and camo does not hide from shots
+        EnemyStore enemies = new EnemyStore(path(), HEIGHT);
+        enemies.moveTo(enemies.spawn(100, 10, 5, 0, EnemyStore.APPEARANCE_NORMAL), 2 * CELL + 5, 2 * CELL + 5);
+        enemies.moveTo(enemies.spawn(100, 10, 5, EnemyStore.FLAG_CAMO, EnemyStore.APPEARANCE_CAMO), 2 * CELL - 5, 2 * CELL - 5);
+        enemies.takeDamage(0, 1000);
+        EnemyGrid grid = grid(enemies);
+
+        assertEquals(0, grid.findFirstHit(2 * CELL, 2 * CELL, 8));
+        assertEquals(1, grid.findFirstHit(2 * CELL - 15, 2 * CELL - 15, 8));
+    }
+
+    @Test
+    void emptyOrUnbuiltGridFindsNothing() {
+        assertEquals(-1, new EnemyGrid(WIDTH, HEIGHT).findNearest(100, 100, 1000, true));
+        assertEquals(-1, new EnemyGrid(WIDTH, HEIGHT).findFirstHit(100, 100, 1000));
+        EnemyGrid empty = grid(new EnemyStore(path(), HEIGHT));
+        assertEquals(-1, empty.findNearest(100, 100, 1000, true));
+        assertEquals(-1, empty.findFirstHit(100, 100, 1000));
+    }
+
+    // 10% of the enemies are dead and 20% are camo; half of the coordinates are on cell edges
+    private static EnemyStore randomEnemies(Random random, int count) {
+        EnemyStore enemies = new EnemyStore(path(), HEIGHT);
+        for (int i = 0; i < count; i++) {
+            int flags = random.nextInt(5) == 0 ? EnemyStore.FLAG_CAMO : 0;
+            int slot = enemies.spawn(100, 10, 5, flags, EnemyStore.APPEARANCE_NORMAL);
+            enemies.moveTo(slot, coordinate(random, WIDTH), coordinate(random, HEIGHT));
+            if (random.nextInt(10) == 0) {
+                enemies.takeDamage(slot, 1000);
+            }
+        }
+        return enemies;
+    }
+
+    private static double coordinate(Random random, double extent) {
+        if (random.nextBoolean()) {
+            return CELL * random.nextInt((int) (extent / CELL) + 1);
+        }
+        return -50 + random.nextDouble() * (extent + 100);
+    }
+
+    private static EnemyStore enemiesAt(double[]... positions) {
+        EnemyStore enemies = new EnemyStore(path(), HEIGHT);
+        for (double[] position : positions) {
+            enemies.moveTo(enemies.spawn(100, 10, 5, 0, EnemyStore.APPEARANCE_NORMAL), position[0], position[1]);
+        }
+        return enemies;
+    }
+
+    private static EnemyGrid grid(EnemyStore enemies) {
+        EnemyGrid grid = new EnemyGrid(WIDTH, HEIGHT);
+        grid.rebuild(enemies);
+        return grid;
+    }
+
+    private static List<PathPoint> path() {
+        return List.of(new PathPoint(0, 0), new PathPoint(WIDTH, HEIGHT));
+    }
+
+    private static int scanNearest(EnemyStore enemies, double x, double y, double range, boolean canSeeCamo) {
+        int best = -1;
+        double bestDistanceSq = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.isDead(i) || (!canSeeCamo && enemies.hasFlag(i, EnemyStore.FLAG_CAMO))) continue;
+            double dx = x - enemies.getX(i);
+            double dy = y - enemies.getY(i);
+            double distanceSq = dx * dx + dy * dy;
+            if (distanceSq <= range * range && (best < 0 || distanceSq < bestDistanceSq)) {
+                best = i;
+                bestDistanceSq = distanceSq;
+            }
+        }
+        return best;
+    }
+
+    private static int scanFirstHit(EnemyStore enemies, double x, double y, double size) {
+        double touching = (size + enemies.getSize()) / 2;
+        for (int i = 0; i < enemies.size(); i++) {
+            double dx = x - enemies.getX(i);
+            double dy = y - enemies.getY(i);
+            if (dx * dx + dy * dy < touching * touching) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class EnemyStoreTest {
+    private static final double HEIGHT = 800;
+
+    @Test
+    void handleFollowsEnemyMovedByRemoval() {
+        EnemyStore enemies = newStore();
+        enemies.spawn(100, 10, 1, 0, EnemyStore.APPEARANCE_NORMAL);
+        int last = enemies.spawn(200, 10, 2, 0, EnemyStore.APPEARANCE_NORMAL);
+        long handle = enemies.handleOf(last);
+
+        enemies.remove(0);
+
+        int slot = enemies.resolve(handle);
+        assertEquals(0, slot);
+        assertEquals(2, enemies.getReward(slot));
+    }
+
+    @Test
+    void handleStopsResolvingAfterRemove() {
+        EnemyStore enemies = newStore();
+        int slot = enemies.spawn(100, 10, 1, 0, EnemyStore.APPEARANCE_NORMAL);
+        long handle = enemies.handleOf(slot);
+
+        enemies.remove(slot);
+
+        assertEquals(-1, enemies.resolve(handle));
+    }
+
+    @Test
+    void staleHandleDoesNotResolveToEnemyReusingItsSlotAndId() {
+        EnemyStore enemies = newStore();
+        int slot = enemies.spawn(100, 10, 1, 0, EnemyStore.APPEARANCE_NORMAL);
+        long stale = enemies.handleOf(slot);
+        enemies.remove(slot);
+
+        int reused = enemies.spawn(100, 10, 2, 0, EnemyStore.APPEARANCE_NORMAL);
+        long fresh = enemies.handleOf(reused);
+
+        assertEquals(slot, reused);
+        // Same id, next generation
+        assertEquals((int) stale, (int) fresh);
+        assertNotEquals(stale, fresh);
+        assertEquals(-1, enemies.resolve(stale));
+        assertEquals(reused, enemies.resolve(fresh));
+    }
+
+    @Test
+    void noEnemyAndUnknownIdsDoNotResolve() {
+        EnemyStore enemies = newStore();
+        enemies.spawn(100, 10, 1, 0, EnemyStore.APPEARANCE_NORMAL);
+        assertEquals(-1, enemies.resolve(EnemyStore.NO_ENEMY));
+        assertEquals(-1, enemies.resolve(5));
+    }
+
+    @Test
+    void handlesStayCorrectThroughChurnAndGrowth() {
+        // Past the initial capacity of 64, with ids recycled many times over
+        EnemyStore enemies = newStore();
+        Random random = new Random(42);
+        List<long[]> live = new ArrayList<>(); // handle and reward of every live enemy
+        List<Long> removed = new ArrayList<>();
+        int nextReward = 0;
+        for (int step = 0; step < 20_000; step++) {
+            if (live.isEmpty() || (live.size() < 300 && random.nextInt(3) > 0)) {
+                int slot = enemies.spawn(100, 10, nextReward, 0, EnemyStore.APPEARANCE_NORMAL);
+                live.add(new long[] {enemies.handleOf(slot), nextReward++});
+            } else {
+                long[] victim = live.remove(random.nextInt(live.size()));
+                enemies.remove(enemies.resolve(victim[0]));
+                removed.add(victim[0]);
+            }
+        }
+
+        assertEquals(live.size(), enemies.size());
+        for (long[] enemy : live) {
+            assertEquals(enemy[1], enemies.getReward(enemies.resolve(enemy[0])));
+        }
+        for (long handle : removed) {
+            assertEquals(-1, enemies.resolve(handle));
+        }
+    }
+
+    private static EnemyStore newStore() {
+        return new EnemyStore(List.of(new PathPoint(0, 0), new PathPoint(1000, HEIGHT)), HEIGHT);
+    }
+}
\ No newline at end of file
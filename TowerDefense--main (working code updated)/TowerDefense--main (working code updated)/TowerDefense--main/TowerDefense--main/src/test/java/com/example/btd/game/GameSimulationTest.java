@@ -0,0 +1,115 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GameSimulationTest {
+    private static final double WIDTH = 1536;
+    private static final double HEIGHT = 1080;
+    private static final long SEED = 42;
+    // Two minutes of play from wave 13: camo, armored and power-up enemies, kills and leaks
+    private static final int TICKS = 120 * GameSimulation.TICKS_PER_SECOND;
+    private static final String[] TOWER_TYPES = {"basic", "sniper", "machine"};
+
+    @Test
+    void sameSeedPlaysTheSameGame() {
+        long[] first = fingerprintEveryTick(SEED);
+        long[] second = fingerprintEveryTick(SEED);
+        for (int tick = 0; tick < TICKS; tick++) {
+            assertEquals(first[tick], second[tick], "State differs after tick " + (tick + 1));
+        }
+    }
+
+    @Test
+    void otherSeedPlaysAnotherGame() {
+        assertNotEquals(fingerprintEveryTick(SEED)[TICKS - 1], fingerprintEveryTick(SEED + 1)[TICKS - 1]);
+    }
+
+    @Test
+    void frameLengthsDoNotChangeTheOutcome() {
+        long[] expected = fingerprintEveryTick(SEED);
+
+        // Frames from 1 to 50 ms, as an uneven frame rate would deliver them
+        GameSimulation simulation = newGame(SEED);
+        Random frames = new Random(7);
+        int ticks = 0;
+        while (ticks < TICKS) {
+            ticks += simulation.advance(0.001 + frames.nextDouble() * 0.049);
+            if (ticks > 0 && ticks <= TICKS) {
+                assertEquals(expected[ticks - 1], fingerprint(simulation), "State differs after tick " + ticks);
+            }
+        }
+    }
+
+
+    @Test
+    void missedShotsGoBackToThePool() {
+        // The first enemy spawns after a second, so nothing is there to be hit before then
+        GameSimulation simulation = new GameSimulation(WIDTH, HEIGHT, new Random(42));
+        ProjectilePool projectiles = simulation.getProjectiles();
+        for (int i = 0; i < projectiles.getCapacity(); i++) {
+            assertTrue(projectiles.fire(100, 100, 200, 100, 20, ProjectilePool.STYLE_BASIC, 4));
+        }
+
+        // 100 pixels at 300 pixels per second
+        simulation.advance(0.5);
+
+        assertEquals(0, projectiles.getActiveCount());
+        assertTrue(projectiles.fire(100, 100, 200, 100, 20, ProjectilePool.STYLE_BASIC, 4));
+        assertEquals(0, projectiles.getDroppedCount());
+    }
+
+    private static long[] fingerprintEveryTick(long seed) {
+        GameSimulation simulation = newGame(seed);
+        long[] fingerprints = new long[TICKS];
+        for (int tick = 0; tick < TICKS; tick++) {
+            simulation.tick(GameSimulation.TICK_SECONDS);
+            fingerprints[tick] = fingerprint(simulation);
+        }
+        return fingerprints;
+    }
+
+    private static GameSimulation newGame(long seed) {
+        GameSimulation simulation = new GameSimulation(WIDTH, HEIGHT, new Random(seed));
+        simulation.startWave(13);
+        simulation.setLives(Integer.MAX_VALUE);
+        Random spots = new Random(SEED);
+        GameMap map = simulation.getMap();
+        for (int i = 0; i < 30; i++) {
+            double x;
+            double y;
+            do {
+                x = spots.nextDouble() * WIDTH;
+                y = spots.nextDouble() * HEIGHT;
+            } while (!map.canPlaceTower(x, y));
+            simulation.addTower(simulation.createTower(x, y, TOWER_TYPES[i % TOWER_TYPES.length]));
+        }
+        return simulation;
+    }
+
+    // Hash of everything a tick changes, exact to the bit
+    private static long fingerprint(GameSimulation simulation) {
+        long hash = simulation.getCurrentWave();
+        hash = 31 * hash + simulation.getScore();
+        hash = 31 * hash + simulation.getMoney();
+        hash = 31 * hash + simulation.getLives();
+        hash = 31 * hash + simulation.getTowerVersion();
+        EnemyStore enemies = simulation.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            hash = 31 * hash + Double.doubleToLongBits(enemies.getX(i));
+            hash = 31 * hash + Double.doubleToLongBits(enemies.getY(i));
+            hash = 31 * hash + Double.doubleToLongBits(enemies.getHealth(i));
+            hash = 31 * hash + enemies.handleOf(i);
+        }
+        ProjectilePool projectiles = simulation.getProjectiles();
+        for (int i = 0; i < projectiles.getActiveCount(); i++) {
+            hash = 31 * hash + Double.doubleToLongBits(projectiles.getX(i));
+            hash = 31 * hash + Double.doubleToLongBits(projectiles.getY(i));
+        }
+        return hash;
+    }
+}
\ No newline at end of file
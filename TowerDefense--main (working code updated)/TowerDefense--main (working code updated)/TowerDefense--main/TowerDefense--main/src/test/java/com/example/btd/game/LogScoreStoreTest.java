@@ -0,0 +1,154 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogScoreStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void pagesAfterAnEntryFollowLeaderboardOrder() throws IOException {
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("leaderboard.log"))) {
+            Random random = new Random(42);
+            List<LeaderboardEntry> scores = new ArrayList<>();
+            // Many ties, and the extremes of the score range
+            scores.add(new LeaderboardEntry("max", Integer.MAX_VALUE, null));
+            scores.add(new LeaderboardEntry("min", Integer.MIN_VALUE, null));
+            for (int i = 0; i < 1000; i++) {
+                scores.add(new LeaderboardEntry("player" + i, random.nextInt(50) - 25, null));
+            }
+            store.addScores(scores);
+
+            List<LeaderboardEntry> all = store.getPage(0, scores.size());
+            List<LeaderboardEntry> paged = new ArrayList<>();
+            List<LeaderboardEntry> page = store.getPage(0, 7);
+            while (!page.isEmpty()) {
+                paged.addAll(page);
+                page = store.getPageAfter(page.get(page.size() - 1), 7);
+            }
+
+            assertEquals(scores.size(), paged.size());
+            for (int i = 0; i < all.size(); i++) {
+                assertEquals(all.get(i).getId(), paged.get(i).getId());
+            }
+            assertEquals("max", all.get(0).getPlayerName());
+            assertEquals("min", all.get(all.size() - 1).getPlayerName());
+            for (int score = -26; score <= 25; score++) {
+                int threshold = score;
+                assertEquals(scores.stream().filter(entry -> entry.getScore() > threshold).count(),
+                    store.countAbove(score));
+                assertEquals(ids(store.getPage(store.countAbove(score), 7)), ids(store.getPageFrom(score, 7)));
+            }
+
+            List<LeaderboardEntry> backwards = new ArrayList<>();
+            page = List.of(all.get(all.size() - 1));
+            while (!page.isEmpty()) {
+                backwards.addAll(0, page);
+                page = store.getPageBefore(page.get(0), 7);
+            }
+            assertEquals(ids(all), ids(backwards));
+        }
+    }
+
+    @Test
+    void batchesMergeIntoLeaderboardOrderAndRefreshTheTopScores() throws IOException {
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("leaderboard.log"))) {
+            Random random = new Random(42);
+            for (int batch = 0; batch < 300; batch++) {
+                List<LeaderboardEntry> scores = new ArrayList<>();
+                for (int i = random.nextInt(20); i > 0; i--) {
+                    scores.add(new LeaderboardEntry("player" + batch, random.nextInt(2000) - 1000, null));
+                }
+                store.addScores(scores);
+                // Read after every batch, so a stale cached top list would show
+                List<LeaderboardEntry> top = store.getTopScores(10);
+                List<LeaderboardEntry> page = store.getPage(0, 10);
+                assertEquals(page.size(), top.size());
+                for (int i = 0; i < top.size(); i++) {
+                    assertEquals(page.get(i).getId(), top.get(i).getId());
+                }
+            }
+
+            List<LeaderboardEntry> all = store.getPage(0, Integer.MAX_VALUE);
+            assertEquals(store.getScoreCount(), all.size());
+            for (int i = 1; i < all.size(); i++) {
+                assertInOrder(all.get(i - 1), all.get(i), i);
+            }
+        }
+    }
+
+    @Test
+    void importOfSeveralChunksMergesIntoLeaderboardOrder() throws IOException {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder();
+        ScoreFileFormat.CSV.writeHeader(csv);
+        for (int i = 0; i < 120_000; i++) {
+            ScoreFileFormat.CSV.write(csv, "imported" + i, random.nextInt(2000) - 1000, "2024-05-01 18:30:00");
+        }
+        Path file = directory.resolve("scores.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("leaderboard.log"))) {
+            List<LeaderboardEntry> scores = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                scores.add(new LeaderboardEntry("player" + i, random.nextInt(2000) - 1000, null));
+            }
+            store.addScores(scores);
+            assertEquals(120_000, store.importScores(file));
+
+            List<LeaderboardEntry> all = store.getPage(0, 200_000);
+            assertEquals(120_500, all.size());
+            for (int i = 1; i < all.size(); i++) {
+                assertInOrder(all.get(i - 1), all.get(i), i);
+            }
+
+            Path exported = directory.resolve("exported.csv");
+            assertEquals(120_500, store.exportScores(exported));
+            try (LogScoreStore copy = new LogScoreStore(directory.resolve("copy.log"))) {
+                assertEquals(120_500, copy.importScores(exported));
+                // Exported in id order, so the copy gives every score the same id
+                List<LeaderboardEntry> copied = copy.getPage(0, 200_000);
+                for (int i = 0; i < all.size(); i++) {
+                    assertEquals(all.get(i).getId(), copied.get(i).getId());
+                    assertEquals(all.get(i).getPlayerName(), copied.get(i).getPlayerName());
+                    assertEquals(all.get(i).getScore(), copied.get(i).getScore());
+                }
+            }
+        }
+    }
+
+    @Test
+    void pageAfterEntryWithoutIdIsRejected() throws IOException {
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("leaderboard.log"))) {
+            store.addScores(List.of(new LeaderboardEntry("a", 10, null)));
+            assertThrows(IllegalArgumentException.class,
+                () -> store.getPageAfter(new LeaderboardEntry("a", 10, null), 10));
+        }
+    }
+
+    private static void assertInOrder(LeaderboardEntry previous, LeaderboardEntry entry, int position) {
+        assertTrue(previous.getScore() > entry.getScore()
+            || (previous.getScore() == entry.getScore() && previous.getId() < entry.getId()),
+            "Out of order at " + position);
+    }
+
+    private static List<Long> ids(List<LeaderboardEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScoreFileFormatTest {
+    private static final String[] NAMES = {
+        "plain", "with, comma", "with \"quotes\"", "two\nlines", "\"\nstarts quoted", "ends in\n", "a\n\nb,\"c\"\n"
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void csvRecordsRoundTripNamesWithLineBreaks() throws IOException {
+        roundTrip(ScoreFileFormat.CSV);
+    }
+
+    @Test
+    void jsonLinesRecordsRoundTripNamesWithLineBreaks() throws IOException {
+        roundTrip(ScoreFileFormat.JSON_LINES);
+    }
+
+    @Test
+    void unterminatedQuoteRunsToEndOfFileAndIsRejected() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader("\"open,1\nnext,2\n"));
+        String record = ScoreFileFormat.CSV.readRecord(reader);
+        assertEquals("\"open,1\nnext,2", record);
+        assertNull(ScoreFileFormat.CSV.readRecord(reader));
+        assertThrows(IllegalArgumentException.class, () -> ScoreFileFormat.CSV.parse(record));
+    }
+
+    @Test
+    void nameWithLineBreakSurvivesJsonImportCsvExportAndCsvImport() throws IOException {
+        Path json = directory.resolve("in.jsonl");
+        Files.writeString(json, "{\"player_name\":\"two\\nlines\",\"score\":50,\"date\":\"2024-05-01 18:30:00\"}\n"
+            + "{\"player_name\":\"next\",\"score\":40,\"date\":\"2024-05-01 18:31:00\"}\n", StandardCharsets.UTF_8);
+        Path csv = directory.resolve("out.csv");
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("first.log"))) {
+            assertEquals(2, store.importScores(json));
+            store.exportScores(csv);
+        }
+
+        try (LogScoreStore store = new LogScoreStore(directory.resolve("second.log"))) {
+            assertEquals(2, store.importScores(csv));
+            List<LeaderboardEntry> top = store.getTopScores(10);
+            assertEquals("two\nlines", top.get(0).getPlayerName());
+            assertEquals("next", top.get(1).getPlayerName());
+        }
+    }
+
+    private static void roundTrip(ScoreFileFormat format) throws IOException {
+        StringBuilder file = new StringBuilder();
+        format.writeHeader(file);
+        for (int i = 0; i < NAMES.length; i++) {
+            format.write(file, NAMES[i], i, "2024-05-01 18:30:00");
+        }
+
+        BufferedReader reader = new BufferedReader(new StringReader(file.toString()));
+        List<String[]> parsed = new ArrayList<>();
+        String record;
+        while ((record = format.readRecord(reader)) != null) {
+            String[] fields = format.parse(record);
+            if (fields != null) {
+                parsed.add(fields);
+            }
+        }
+
+        assertEquals(NAMES.length, parsed.size());
+        for (int i = 0; i < NAMES.length; i++) {
+            assertArrayEquals(new String[] {NAMES[i], Integer.toString(i), "2024-05-01 18:30:00"}, parsed.get(i));
+        }
+    }
+}
\ No newline at end of file
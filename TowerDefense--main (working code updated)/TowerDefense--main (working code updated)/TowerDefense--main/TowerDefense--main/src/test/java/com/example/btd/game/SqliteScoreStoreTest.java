@@ -0,0 +1,128 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SqliteScoreStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void importUpdatesSummariesWithoutChangingTheSchema() throws IOException, SQLException {
+        String url = "jdbc:sqlite:" + directory.resolve("leaderboard.db");
+        SqliteScoreStore store = new SqliteScoreStore(url);
+        try {
+            Map<String, int[]> expected = new HashMap<>(); // games played and best score by player
+            store.addScores(List.of(new LeaderboardEntry("player0", 10, null)));
+            record(expected, "player0", 10);
+
+            // Several chunks, all dated today, so they count for the daily and weekly tops
+            Random random = new Random(42);
+            StringBuilder csv = new StringBuilder();
+            ScoreFileFormat.CSV.writeHeader(csv);
+            for (int i = 0; i < 12_000; i++) {
+                String name = "player" + random.nextInt(50);
+                int score = random.nextInt(100_000);
+                ScoreFileFormat.CSV.write(csv, name, score, null);
+                record(expected, name, score);
+            }
+            Path file = directory.resolve("scores.csv");
+            Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+            long schemaVersion = schemaVersion(url);
+            assertEquals(12_000, store.importScores(file));
+            assertEquals(schemaVersion, schemaVersion(url));
+
+            // The insert triggers fire again once the import is over
+            store.addScores(List.of(new LeaderboardEntry("player0", 200_000, null)));
+            record(expected, "player0", 200_000);
+
+            for (Map.Entry<String, int[]> player : expected.entrySet()) {
+                PlayerStats stats = store.getPlayerStats(player.getKey());
+                assertEquals(player.getValue()[0], stats.getGamesPlayed(), player.getKey());
+                assertEquals(player.getValue()[1], stats.getBestScore(), player.getKey());
+            }
+            List<LeaderboardEntry> top = store.getTopScores(100);
+            for (LeaderboardPeriod period : new LeaderboardPeriod[] {LeaderboardPeriod.DAILY, LeaderboardPeriod.WEEKLY}) {
+                assertEquals(ids(top), ids(store.getTopScores(period, 100)), period.getDisplayName());
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void keysetPagesMatchOffsetPages() throws IOException {
+        SqliteScoreStore store = new SqliteScoreStore("jdbc:sqlite:" + directory.resolve("leaderboard.db"));
+        try {
+            // Many ties, so pages have to break them by id
+            Random random = new Random(42);
+            List<LeaderboardEntry> scores = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                scores.add(new LeaderboardEntry("player" + i, random.nextInt(40), null));
+            }
+            store.addScores(scores);
+            List<LeaderboardEntry> all = store.getPage(0, 1000);
+
+            List<LeaderboardEntry> forwards = new ArrayList<>(store.getPage(0, 7));
+            List<LeaderboardEntry> page = store.getPageAfter(forwards.get(forwards.size() - 1), 7);
+            while (!page.isEmpty()) {
+                forwards.addAll(page);
+                page = store.getPageAfter(page.get(page.size() - 1), 7);
+            }
+            assertEquals(ids(all), ids(forwards));
+
+            List<LeaderboardEntry> backwards = new ArrayList<>();
+            page = List.of(all.get(all.size() - 1));
+            while (!page.isEmpty()) {
+                backwards.addAll(0, page);
+                page = store.getPageBefore(page.get(0), 7);
+            }
+            assertEquals(ids(all), ids(backwards));
+
+            for (int score = -1; score <= 40; score++) {
+                assertEquals(ids(store.getPage(store.countAbove(score), 7)), ids(store.getPageFrom(score, 7)));
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void record(Map<String, int[]> expected, String name, int score) {
+        int[] player = expected.computeIfAbsent(name, key -> new int[] {0, Integer.MIN_VALUE});
+        player[0]++;
+        player[1] = Math.max(player[1], score);
+    }
+
+    private static List<Long> ids(List<LeaderboardEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (LeaderboardEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    private static long schemaVersion(String url) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA schema_version")) {
+            return rs.getLong(1);
+        }
+    }
+}
\ No newline at end of file
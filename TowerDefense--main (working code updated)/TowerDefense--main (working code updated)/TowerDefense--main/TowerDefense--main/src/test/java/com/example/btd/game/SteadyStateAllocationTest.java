@@ -0,0 +1,107 @@
+package com.example.btd.game;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fails when the game's update path allocates in steady state.
+ *
+ * Each scenario drives GameSimulation.advance the way GameManager does, one 60 Hz
+ * frame (two ticks) at a time, through thousands of ticks that include wave
+ * changes, spawns, shots, kills and leaks. After a warm-up that lets the JIT settle,
+ * the bytes the thread allocates are read before and after every frame. A scenario
+ * fails if it allocates more than 16 bytes per tick on average, which is less than
+ * one Iterator or boxed value per tick.
+ *
+ * Drawing (GameRenderer, HudRenderer) needs the JavaFX toolkit and is not covered.
+ */
+class SteadyStateAllocationTest {
+    private static final double FRAME_SECONDS = 1.0 / 60;
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 20_000;
+    private static final long BUDGET_PER_TICK = 16;
+    // Frames reported by number when a scenario allocates
+    private static final int REPORTED_FRAMES = 5;
+    private static final String[] TOWER_TYPES = {"basic", "sniper", "machine"};
+
+    private static com.sun.management.ThreadMXBean allocation;
+
+    @BeforeAll
+    static void enableAllocationCounting() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported(),
+            "This JVM cannot report per-thread allocation");
+        allocation = (com.sun.management.ThreadMXBean) threads;
+        allocation.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void earlyWavesDoNotAllocate() {
+        check(1, 5);
+    }
+
+    @Test
+    void specialEnemiesAndPowerUpsDoNotAllocate() {
+        check(13, 30);
+    }
+
+    @Test
+    void lateWavesWithBossesDoNotAllocate() {
+        check(40, 150);
+    }
+
+    private static void check(int wave, int towers) {
+        GameSimulation simulation = new GameSimulation(1536, 1080, new Random(42));
+        simulation.startWave(wave);
+        simulation.setLives(Integer.MAX_VALUE);
+        placeTowers(simulation, towers, new Random(42));
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            simulation.advance(FRAME_SECONDS);
+        }
+
+        int startWave = simulation.getCurrentWave();
+        long ticks = 0;
+        long total = 0;
+        int allocatingFrames = 0;
+        StringBuilder examples = new StringBuilder();
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            long before = allocation.getCurrentThreadAllocatedBytes();
+            ticks += simulation.advance(FRAME_SECONDS);
+            long bytes = allocation.getCurrentThreadAllocatedBytes() - before;
+            if (bytes > 0) {
+                total += bytes;
+                if (++allocatingFrames <= REPORTED_FRAMES) {
+                    examples.append(String.format("%n    frame %d, wave %d: %d bytes",
+                        frame, simulation.getCurrentWave(), bytes));
+                }
+            }
+        }
+
+        double perTick = (double) total / ticks;
+        assertTrue(perTick <= BUDGET_PER_TICK, String.format(
+            "Waves %d-%d allocated %d bytes in %d of %d frames, %.2f bytes per tick%s",
+            startWave, simulation.getCurrentWave(), total, allocatingFrames, MEASURED_FRAMES,
+            perTick, examples));
+    }
+
+    // Towers of every type at seeded spots the map allows; they may overlap each other
+    private static void placeTowers(GameSimulation simulation, int count, Random random) {
+        GameMap map = simulation.getMap();
+        for (int i = 0; i < count; i++) {
+            double x;
+            double y;
+            do {
+                x = random.nextDouble() * simulation.getWidth();
+                y = random.nextDouble() * simulation.getHeight();
+            } while (!map.canPlaceTower(x, y));
+            simulation.addTower(simulation.createTower(x, y, TOWER_TYPES[i % TOWER_TYPES.length]));
+        }
+    }
+}
\ No newline at end of file